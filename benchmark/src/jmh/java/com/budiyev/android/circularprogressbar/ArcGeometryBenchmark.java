@@ -0,0 +1,122 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame arc state computation benchmarks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ArcGeometryBenchmark {
+    private static final int SIZE = 144;
+    private static final float STROKE_WIDTH = 9f;
+    private static final long ROTATION_DURATION = 1200L;
+    private static final long SWEEP_DURATION = 600L;
+    private static final float MINIMUM_ANGLE = 60f;
+    private final ArcGeometry mGeometry = new ArcGeometry();
+    private final ArcGeometry mCappedGeometry = new ArcGeometry();
+    private float mProgress;
+    private long mTime;
+
+    @Setup
+    public void setUp() {
+        mGeometry.setBounds(0f, 0f, SIZE, SIZE, STROKE_WIDTH);
+        mGeometry.setCap(false, STROKE_WIDTH);
+        mCappedGeometry.setBounds(0f, 0f, SIZE, SIZE, STROKE_WIDTH);
+        mCappedGeometry.setCap(true, STROKE_WIDTH);
+    }
+
+    @Benchmark
+    public void determinate(final Blackhole blackhole) {
+        final ArcGeometry geometry = mGeometry;
+        geometry.computeDeterminateArc(270f, nextProgress(), 100f);
+        blackhole.consume(geometry.getArcStartAngle());
+        blackhole.consume(geometry.getArcSweepAngle());
+    }
+
+    @Benchmark
+    public void determinateCapCompensated(final Blackhole blackhole) {
+        final ArcGeometry geometry = mCappedGeometry;
+        geometry.computeDeterminateArc(270f, nextProgress(), 100f);
+        blackhole.consume(geometry.getArcStartAngle());
+        blackhole.consume(geometry.getArcSweepAngle());
+    }
+
+    @Benchmark
+    public void indeterminate(final Blackhole blackhole) {
+        computeIndeterminate(mGeometry, blackhole);
+    }
+
+    @Benchmark
+    public void indeterminateCapCompensated(final Blackhole blackhole) {
+        computeIndeterminate(mCappedGeometry, blackhole);
+    }
+
+    @Benchmark
+    public void bounds(final Blackhole blackhole) {
+        final ArcGeometry geometry = mGeometry;
+        final int size = SIZE + (int) (nextTime() & 63L);
+        geometry.setBounds(0f, 0f, size, SIZE, STROKE_WIDTH);
+        geometry.setCap(true, STROKE_WIDTH);
+        blackhole.consume(geometry.getLeft());
+        blackhole.consume(geometry.getCapAngle());
+    }
+
+    private void computeIndeterminate(final ArcGeometry geometry, final Blackhole blackhole) {
+        geometry.computeIndeterminateFrame(nextTime(), ROTATION_DURATION, SWEEP_DURATION,
+                MINIMUM_ANGLE, false, 0f);
+        // Linear interpolation stands in for the framework interpolators
+        final float startAngle = 360f * geometry.getRotationFraction();
+        final float sweepAngle = (360f - MINIMUM_ANGLE * 2f) * geometry.getSweepFraction();
+        geometry.computeIndeterminateArc(startAngle, sweepAngle, geometry.getOffsetAngle(),
+                MINIMUM_ANGLE, geometry.isGrowMode());
+        blackhole.consume(geometry.getArcStartAngle());
+        blackhole.consume(geometry.getArcSweepAngle());
+    }
+
+    private float nextProgress() {
+        float progress = mProgress + 0.37f;
+        if (progress > 100f) {
+            progress -= 100f;
+        }
+        mProgress = progress;
+        return progress;
+    }
+
+    private long nextTime() {
+        return mTime += 16L;
+    }
+}
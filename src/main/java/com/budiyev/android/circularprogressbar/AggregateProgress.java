@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import androidx.annotation.AnyThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Combined progress of many tasks, that are updated in parallel, for example,
+ * chunks of a parallel download
+ * <p>
+ * Each task has its own progress slot, that is written only by the thread, that runs it,
+ * so workers don't contend on a shared counter; slots are summed by the reader, when
+ * {@linkplain CircularProgressBar#setAggregateProgress(AggregateProgress) bound to
+ * a progress bar} they're summed at most once per animation frame. Tasks can be added
+ * and their totals can be changed at any time.
+ */
+@AnyThread
+public final class AggregateProgress {
+    private static final Task[] EMPTY_TASKS = new Task[0];
+    private final AtomicBoolean mUpdateScheduled = new AtomicBoolean();
+    private final Object mTasksLock = new Object();
+    private volatile Task[] mTasks = EMPTY_TASKS;
+    private volatile Runnable mUpdateCallback;
+
+    /**
+     * Add new task
+     *
+     * @param total Total amount of the task, can be changed later
+     * @return Task progress slot, that should be updated by one thread at a time
+     */
+    @NonNull
+    public Task newTask(final long total) {
+        final Task task = new Task(this, total);
+        synchronized (mTasksLock) {
+            // Tasks are added rarely, so readers iterate over an immutable array
+            final Task[] tasks = mTasks;
+            final int count = tasks.length;
+            final Task[] newTasks = new Task[count + 1];
+            System.arraycopy(tasks, 0, newTasks, 0, count);
+            newTasks[count] = task;
+            mTasks = newTasks;
+        }
+        onChanged();
+        return task;
+    }
+
+    /**
+     * Number of added tasks
+     */
+    public int getTaskCount() {
+        return mTasks.length;
+    }
+
+    /**
+     * Sum of progress of all tasks
+     */
+    public long getProgress() {
+        long progress = 0L;
+        for (final Task task : mTasks) {
+            progress += task.mProgress;
+        }
+        return progress;
+    }
+
+    /**
+     * Sum of totals of all tasks
+     */
+    public long getTotal() {
+        long total = 0L;
+        for (final Task task : mTasks) {
+            total += task.mTotal;
+        }
+        return total;
+    }
+
+    /**
+     * Callback, that is called on the updating thread when progress changes,
+     * it isn't called again until the next {@link #onUpdated()} call
+     */
+    void setUpdateCallback(@Nullable final Runnable callback) {
+        mUpdateCallback = callback;
+        mUpdateScheduled.set(false);
+        if (callback != null) {
+            onChanged();
+        }
+    }
+
+    /**
+     * Should be called by the reader before it reads progress,
+     * changes after this call will trigger the update callback again
+     */
+    void onUpdated() {
+        mUpdateScheduled.set(false);
+    }
+
+    private void onChanged() {
+        // Plain read keeps the flag cache line shared while an update is already scheduled
+        if (!mUpdateScheduled.get() && mUpdateScheduled.compareAndSet(false, true)) {
+            final Runnable callback = mUpdateCallback;
+            if (callback != null) {
+                callback.run();
+            } else {
+                mUpdateScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Progress slot of a single task, it can also be used as a {@link ProgressSink}
+     * of a stream or channel adapter
+     */
+    @SuppressWarnings("unused")
+    public static final class Task implements ProgressSink {
+        private final AggregateProgress mAggregateProgress;
+        // Padding keeps slots of different tasks on different cache lines
+        private long mPadding0, mPadding1, mPadding2, mPadding3, mPadding4, mPadding5, mPadding6;
+        private volatile long mProgress;
+        private volatile long mTotal;
+        private long mPadding7, mPadding8, mPadding9, mPadding10, mPadding11, mPadding12;
+
+        private Task(@NonNull final AggregateProgress aggregateProgress, final long total) {
+            mAggregateProgress = aggregateProgress;
+            mTotal = total;
+        }
+
+        /**
+         * Task progress
+         */
+        public long getProgress() {
+            return mProgress;
+        }
+
+        /**
+         * Task progress
+         */
+        public void setProgress(final long progress) {
+            mProgress = progress;
+            mAggregateProgress.onChanged();
+        }
+
+        /**
+         * Add to task progress
+         */
+        public void addProgress(final long amount) {
+            mProgress = mProgress + amount;
+            mAggregateProgress.onChanged();
+        }
+
+        /**
+         * Task total
+         */
+        public long getTotal() {
+            return mTotal;
+        }
+
+        /**
+         * Task total
+         */
+        public void setTotal(final long total) {
+            mTotal = total;
+            mAggregateProgress.onChanged();
+        }
+
+        /**
+         * Set task progress to the transferred amount, and task total to the transferred
+         * total if it's known
+         */
+        @Override
+        public void onProgress(final long transferred, final long total) {
+            if (total >= 0L) {
+                mTotal = total;
+            }
+            setProgress(transferred);
+        }
+    }
+}
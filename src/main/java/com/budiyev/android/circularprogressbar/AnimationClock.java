@@ -0,0 +1,65 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Time source and frame dispatcher of progress bar animations
+ *
+ * @see CircularProgressBar#setAnimationClock(AnimationClock)
+ * @see ManualAnimationClock
+ */
+public interface AnimationClock {
+
+    /**
+     * Current time of this clock (in milliseconds)
+     */
+    long getTime();
+
+    /**
+     * Register frame callback, it should receive all subsequent frames until removed;
+     * adding already registered callback should have no effect
+     */
+    void addCallback(@NonNull Callback callback);
+
+    /**
+     * Unregister frame callback, it can be called during frame dispatch
+     */
+    void removeCallback(@NonNull Callback callback);
+
+    /**
+     * Frame callback
+     */
+    interface Callback {
+
+        /**
+         * Called once per frame while callback is registered
+         *
+         * @param frameTimeMillis Frame time (in milliseconds), in the time base
+         *                        of the {@linkplain #getTime() clock}
+         */
+        void onFrame(long frameTimeMillis);
+    }
+}
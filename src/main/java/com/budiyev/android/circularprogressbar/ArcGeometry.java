@@ -0,0 +1,272 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+/**
+ * Circular progress bar geometry and per-frame arc state, doesn't depend on Android
+ * framework classes, so it can be benchmarked and verified on a plain JVM
+ */
+final class ArcGeometry {
+    /**
+     * Minimum absolute sweep angle of a cap-compensated arc, arc with zero sweep angle
+     * isn't drawn at all
+     */
+    static final float MINIMUM_SWEEP_ANGLE = 0.0001f;
+    private float mLeft;
+    private float mTop;
+    private float mRight;
+    private float mBottom;
+    private float mCapAngle;
+    private float mArcStartAngle;
+    private float mArcSweepAngle;
+    private float mRotationFraction;
+    private float mSweepFraction;
+    private float mOffsetAngle;
+    private boolean mGrowMode;
+
+    /**
+     * Left edge of the stroke center line bounds
+     */
+    float getLeft() {
+        return mLeft;
+    }
+
+    /**
+     * Top edge of the stroke center line bounds
+     */
+    float getTop() {
+        return mTop;
+    }
+
+    /**
+     * Right edge of the stroke center line bounds
+     */
+    float getRight() {
+        return mRight;
+    }
+
+    /**
+     * Bottom edge of the stroke center line bounds
+     */
+    float getBottom() {
+        return mBottom;
+    }
+
+    /**
+     * Angle (in degrees), that is covered by a single round or square stroke cap
+     */
+    float getCapAngle() {
+        return mCapAngle;
+    }
+
+    /**
+     * Start angle of the last computed arc
+     */
+    float getArcStartAngle() {
+        return mArcStartAngle;
+    }
+
+    /**
+     * Sweep angle of the last computed arc
+     */
+    float getArcSweepAngle() {
+        return mArcSweepAngle;
+    }
+
+    /**
+     * Raw (not interpolated) rotation fraction of the last computed indeterminate frame
+     */
+    float getRotationFraction() {
+        return mRotationFraction;
+    }
+
+    /**
+     * Raw (not interpolated) sweep fraction of the last computed indeterminate frame
+     */
+    float getSweepFraction() {
+        return mSweepFraction;
+    }
+
+    /**
+     * Offset angle of the last computed indeterminate frame
+     */
+    float getOffsetAngle() {
+        return mOffsetAngle;
+    }
+
+    /**
+     * Grow mode of the last computed indeterminate frame
+     */
+    boolean isGrowMode() {
+        return mGrowMode;
+    }
+
+    /**
+     * Fit stroke center line into the centered square of the specified bounds
+     *
+     * @param thickness Thickest stroke width
+     */
+    void setBounds(final float left, final float top, final int width, final int height,
+            final float thickness) {
+        final float inset = thickness / 2f + 1f;
+        if (width > height) {
+            final float offset = (width - height) / 2f;
+            mLeft = left + offset + inset;
+            mTop = top + inset;
+            mRight = left + width - offset - inset;
+            mBottom = top + height - inset;
+        } else if (width < height) {
+            final float offset = (height - width) / 2f;
+            mLeft = left + inset;
+            mTop = top + offset + inset;
+            mRight = left + width - inset;
+            mBottom = top + height - offset - inset;
+        } else {
+            mLeft = left + inset;
+            mTop = top + inset;
+            mRight = left + width - inset;
+            mBottom = top + height - inset;
+        }
+    }
+
+    /**
+     * Compute stroke cap angle for the current bounds
+     *
+     * @param capped      Whether stroke has round or square cap
+     * @param strokeWidth Stroke width
+     */
+    void setCap(final boolean capped, final float strokeWidth) {
+        final float r = (mRight - mLeft) / 2f;
+        if (capped && r != 0) {
+            mCapAngle = 90f * strokeWidth / (float) Math.PI / r;
+        } else {
+            mCapAngle = 0f;
+        }
+    }
+
+    /**
+     * Compute determinate progress arc
+     */
+    void computeDeterminateArc(final float startAngle, final float progress,
+            final float maximum) {
+        final float sweep;
+        if (Math.abs(progress) < Math.abs(maximum)) {
+            sweep = progress / maximum * 360f;
+        } else {
+            sweep = 360f;
+        }
+        setArc(startAngle, sweep);
+    }
+
+    /**
+     * Compute arc of a progress segment, that starts where the previous segments end
+     *
+     * @param offset Sum of the previous segment values
+     * @param value  Segment value, non-negative
+     * @return Whether segment is visible, it's not visible if it's empty
+     * or previous segments already cover the full circle
+     */
+    boolean computeSegmentArc(final float startAngle, final float offset, final float value,
+            final float maximum) {
+        final float startFraction = Math.abs(offset / maximum);
+        if (value <= 0f || !(startFraction < 1f)) {
+            return false;
+        }
+        final float fraction = Math.min(Math.abs(value / maximum), 1f - startFraction);
+        final float direction = maximum < 0f ? -360f : 360f;
+        setArc(startAngle + startFraction * direction, fraction * direction);
+        return true;
+    }
+
+    /**
+     * Compute indeterminate progress arc
+     */
+    void computeIndeterminateArc(final float startAngle, final float sweepAngle,
+            final float offsetAngle, final float minimumAngle, final boolean growMode) {
+        if (growMode) {
+            setArc(startAngle - offsetAngle, sweepAngle + minimumAngle);
+        } else {
+            setArc(startAngle + sweepAngle - offsetAngle, 360f - sweepAngle - minimumAngle);
+        }
+    }
+
+    /**
+     * Compute indeterminate animation frame, state is equivalent to the one produced by
+     * rotation and sweep animations that were running for the specified time
+     *
+     * @param elapsed         Time since animation start (in milliseconds)
+     * @param baseGrowMode    Grow mode at animation start
+     * @param baseOffsetAngle Offset angle at animation start
+     */
+    void computeIndeterminateFrame(final long elapsed, final long rotationDuration,
+            final long sweepDuration, final float minimumAngle, final boolean baseGrowMode,
+            final float baseOffsetAngle) {
+        final long time = Math.max(elapsed, 0L);
+        if (rotationDuration > 0L) {
+            mRotationFraction = (float) (time % rotationDuration) / rotationDuration;
+        } else {
+            mRotationFraction = 1f;
+        }
+        final long cycles;
+        if (sweepDuration > 0L) {
+            cycles = time / sweepDuration;
+            mSweepFraction = (float) (time % sweepDuration) / sweepDuration;
+        } else {
+            cycles = 0L;
+            mSweepFraction = 1f;
+        }
+        // Grow mode is toggled at the end of each sweep cycle,
+        // offset is advanced each time when grow mode is entered
+        final long growCycles;
+        if (baseGrowMode) {
+            growCycles = cycles / 2L;
+        } else {
+            growCycles = (cycles + 1L) / 2L;
+        }
+        mGrowMode = (cycles & 1L) == 0L ? baseGrowMode : !baseGrowMode;
+        mOffsetAngle =
+                (float) ((baseOffsetAngle + growCycles * (double) minimumAngle * 2d) % 360d);
+    }
+
+    private void setArc(float start, float sweep) {
+        final float capAngle = mCapAngle;
+        if (capAngle != 0f && Math.abs(sweep) != 360f) {
+            if (sweep > 0) {
+                start += capAngle;
+                sweep -= capAngle * 2f;
+                if (sweep < MINIMUM_SWEEP_ANGLE) {
+                    sweep = MINIMUM_SWEEP_ANGLE;
+                }
+            } else if (sweep < 0) {
+                start -= capAngle;
+                sweep += capAngle * 2f;
+                if (sweep > -MINIMUM_SWEEP_ANGLE) {
+                    sweep = -MINIMUM_SWEEP_ANGLE;
+                }
+            }
+        }
+        mArcStartAngle = start;
+        mArcSweepAngle = sweep;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RecordingCanvas;
+import android.graphics.RectF;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+/**
+ * Cached background stroke ring, recorded into a {@link RenderNode} for hardware accelerated
+ * canvases on API 29+ or rasterized into a {@link Bitmap} otherwise; it is rebuilt lazily
+ * after {@link #invalidate()}, each frame only draws the cached ring
+ */
+final class BackgroundStrokeCache {
+    private Object mRenderNode;
+    private Bitmap mBitmap;
+    private boolean mRenderNodeValid;
+    private boolean mBitmapValid;
+
+    /**
+     * Mark cached ring as outdated, it will be rebuilt on the next draw
+     */
+    void invalidate() {
+        mRenderNodeValid = false;
+        mBitmapValid = false;
+    }
+
+    /**
+     * Draw cached ring, rebuild it if needed
+     *
+     * @param canvas Canvas
+     * @param bounds Bounds to cache, should contain whole ring including stroke
+     * @param rect   Ring rect
+     * @param paint  Ring stroke paint
+     */
+    void draw(@NonNull final Canvas canvas, @NonNull final Rect bounds, @NonNull final RectF rect,
+            @NonNull final Paint paint) {
+        final int width = bounds.width();
+        final int height = bounds.height();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && canvas.isHardwareAccelerated()) {
+            if (mRenderNode == null) {
+                mRenderNode = Api29Impl.createRenderNode();
+            }
+            if (!mRenderNodeValid) {
+                Api29Impl.record(mRenderNode, bounds, rect, paint);
+                mRenderNodeValid = true;
+            }
+            Api29Impl.draw(canvas, mRenderNode);
+            return;
+        }
+        Bitmap bitmap = mBitmap;
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            if (bitmap != null) {
+                bitmap.recycle();
+            }
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            mBitmap = bitmap;
+            mBitmapValid = false;
+        }
+        if (!mBitmapValid) {
+            bitmap.eraseColor(0);
+            final Canvas bitmapCanvas = new Canvas(bitmap);
+            bitmapCanvas.translate(-bounds.left, -bounds.top);
+            bitmapCanvas.drawOval(rect, paint);
+            mBitmapValid = true;
+        }
+        canvas.drawBitmap(bitmap, bounds.left, bounds.top, null);
+    }
+
+    /**
+     * Release cached ring
+     */
+    void release() {
+        if (mRenderNode != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Api29Impl.discard(mRenderNode);
+        }
+        mRenderNode = null;
+        final Bitmap bitmap = mBitmap;
+        if (bitmap != null) {
+            bitmap.recycle();
+            mBitmap = null;
+        }
+        invalidate();
+    }
+
+    @RequiresApi(Build.VERSION_CODES.Q)
+    private static final class Api29Impl {
+        private Api29Impl() {
+        }
+
+        @NonNull
+        static Object createRenderNode() {
+            return new RenderNode("CircularProgressBackgroundStroke");
+        }
+
+        static void record(@NonNull final Object renderNode, @NonNull final Rect bounds,
+                @NonNull final RectF rect, @NonNull final Paint paint) {
+            final RenderNode node = (RenderNode) renderNode;
+            node.setPosition(bounds);
+            final RecordingCanvas canvas = node.beginRecording(bounds.width(), bounds.height());
+            try {
+                canvas.translate(-bounds.left, -bounds.top);
+                canvas.drawOval(rect, paint);
+            } finally {
+                node.endRecording();
+            }
+        }
+
+        static void draw(@NonNull final Canvas canvas, @Nullable final Object renderNode) {
+            canvas.drawRenderNode((RenderNode) renderNode);
+        }
+
+        static void discard(@NonNull final Object renderNode) {
+            ((RenderNode) renderNode).discardDisplayList();
+        }
+    }
+}
@@ -23,22 +23,27 @@
  */
 package com.budiyev.android.circularprogressbar;
 
-import android.animation.Animator;
 import android.animation.TimeInterpolator;
-import android.animation.ValueAnimator;
 import android.content.Context;
-import android.content.res.TypedArray;
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.Paint;
-import android.graphics.RectF;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
 import android.os.Build;
+import android.os.SystemClock;
 import android.util.AttributeSet;
-import android.util.DisplayMetrics;
 import android.view.View;
-import android.view.animation.DecelerateInterpolator;
-import android.view.animation.LinearInterpolator;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityManager;
+import android.view.accessibility.AccessibilityNodeInfo;
+import android.widget.ProgressBar;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.annotation.AnyThread;
 import androidx.annotation.AttrRes;
 import androidx.annotation.ColorInt;
 import androidx.annotation.FloatRange;
@@ -50,45 +55,41 @@ import androidx.annotation.StyleRes;
 
 /**
  * Circular progress bar
+ * <p>
+ * Rendering and animations are delegated to {@link CircularProgressDrawable}
  */
 public final class CircularProgressBar extends View {
-    private static final float DEFAULT_SIZE_DP = 48f;
-    private static final float DEFAULT_MAXIMUM = 100f;
-    private static final float DEFAULT_PROGRESS = 0f;
-    private static final float DEFAULT_FOREGROUND_STROKE_WIDTH_DP = 3f;
-    private static final float DEFAULT_BACKGROUND_STROKE_WIDTH_DP = 1f;
-    private static final float DEFAULT_START_ANGLE = 270f;
-    private static final float DEFAULT_INDETERMINATE_MINIMUM_ANGLE = 60f;
-    private static final int DEFAULT_FOREGROUND_STROKE_CAP = 0;
-    private static final int DEFAULT_FOREGROUND_STROKE_COLOR = Color.BLUE;
-    private static final int DEFAULT_BACKGROUND_STROKE_COLOR = Color.BLACK;
-    private static final int DEFAULT_PROGRESS_ANIMATION_DURATION = 100;
-    private static final int DEFAULT_INDETERMINATE_ROTATION_ANIMATION_DURATION = 1200;
-    private static final int DEFAULT_INDETERMINATE_SWEEP_ANIMATION_DURATION = 600;
-    private static final boolean DEFAULT_ANIMATE_PROGRESS = true;
-    private static final boolean DEFAULT_DRAW_BACKGROUND_STROKE = false;
-    private static final boolean DEFAULT_INDETERMINATE = false;
-    private final Runnable mSweepRestartAction = new SweepRestartAction();
-    private final RectF mDrawRect = new RectF();
-    private final ValueAnimator mProgressAnimator = new ValueAnimator();
-    private final ValueAnimator mIndeterminateRotationAnimator = new ValueAnimator();
-    private final ValueAnimator mIndeterminateSweepAnimator = new ValueAnimator();
-    private final Paint mForegroundStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final Paint mBackgroundStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private int mDefaultSize = 0;
-    private float mMaximum = 0f;
-    private float mProgress = 0f;
-    private float mStartAngle = 0f;
-    private float mIndeterminateStartAngle = 0f;
-    private float mIndeterminateSweepAngle = 0f;
-    private float mIndeterminateOffsetAngle = 0f;
-    private float mIndeterminateMinimumAngle = 0f;
-    private float mForegroundStrokeCapAngle = 0f;
-    private boolean mIndeterminate = false;
-    private boolean mAnimateProgress = false;
-    private boolean mDrawBackgroundStroke = false;
-    private boolean mIndeterminateGrowMode = false;
+    static final int DEFAULT_FOREGROUND_STROKE_CAP = 0;
+    static final int DEFAULT_LAYER_POLICY = 0;
+    static final boolean DEFAULT_PAUSE_WHEN_CLIPPED = false;
+    private static final long DEFAULT_ACCESSIBILITY_EVENT_INTERVAL = 200L;
+    private static final int ACCESSIBILITY_PERCENT_UNKNOWN = -1;
+    private final Runnable mPendingProgressAction = new PendingProgressAction();
+    private final Runnable mAccessibilityEventAction = new AccessibilityEventAction();
+    private final Runnable mProgressRangeCallback = new ProgressRangeCallback();
+    private final ClipObserver mClipObserver = new ClipObserver();
+    private final LayerObserver mLayerObserver = new LayerObserver();
+    private final Rect mVisibleRect = new Rect();
+    private final AtomicInteger mPendingProgress = new AtomicInteger();
+    private final AtomicBoolean mPendingProgressScheduled = new AtomicBoolean();
+    private final TransferProgressSink mProgressSink = new TransferProgressSink();
+    private final AggregateProgressReader mAggregateProgressReader =
+            new AggregateProgressReader();
+    private AggregateProgress mAggregateProgress;
+    private CircularProgressDrawable mDrawable;
+    private AccessibilityManager mAccessibilityManager;
+    private LayerPolicy mLayerPolicy = LayerPolicy.OFF;
+    private boolean mLayerManaged = false;
+    private boolean mLayerAnimating = false;
+    private boolean mPauseWhenClipped = false;
+    private boolean mAttached = false;
     private boolean mVisible = false;
+    private boolean mClipped = false;
+    private boolean mAccessibilityEventScheduled = false;
+    private float mAccessibilityProgress = 0f;
+    private int mAccessibilityPercent = ACCESSIBILITY_PERCENT_UNKNOWN;
+    private long mAccessibilityEventInterval = DEFAULT_ACCESSIBILITY_EVENT_INTERVAL;
+    private long mAccessibilityEventTime = 0L;
 
     public CircularProgressBar(@NonNull final Context context) {
         super(context);
@@ -117,58 +118,301 @@ public final class CircularProgressBar extends View {
      * Indeterminate mode
      */
     public boolean isIndeterminate() {
-        return mIndeterminate;
+        return mDrawable.isIndeterminate();
     }
 
     /**
      * Indeterminate mode, disabled by default
      */
     public void setIndeterminate(final boolean indeterminate) {
-        cancelIndeterminateAnimations();
-        mIndeterminate = indeterminate;
-        invalidate();
-        if (mVisible && indeterminate) {
-            endProgressAnimation();
-            startIndeterminateAnimations();
-        }
+        mDrawable.setIndeterminate(indeterminate);
+        updateAccessibilityProgress(mAccessibilityProgress);
     }
 
     /**
      * Get current progress value for non-indeterminate mode
      */
     public float getProgress() {
-        return mProgress;
+        return mDrawable.getProgress();
     }
 
     /**
      * Set current progress value for non-indeterminate mode
      */
     public void setProgress(final float progress) {
-        if (mIndeterminate) {
-            mProgress = progress;
-        } else {
-            cancelProgressAnimation();
-            if (mVisible && mAnimateProgress) {
-                setProgressAnimated(progress);
+        mDrawable.setProgress(progress);
+        updateAccessibilityProgress(progress);
+    }
+
+    /**
+     * Set current progress value for non-indeterminate mode from any thread
+     * <p>
+     * Value is applied on the main thread at the next animation frame, if progress is set
+     * several times before that, only the latest value is applied
+     */
+    @AnyThread
+    public void setProgressFromAnyThread(final float progress) {
+        mPendingProgress.set(Float.floatToRawIntBits(progress));
+        if (mPendingProgressScheduled.compareAndSet(false, true)) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                postOnAnimation(mPendingProgressAction);
             } else {
-                setProgressInternal(progress);
+                post(mPendingProgressAction);
             }
         }
     }
 
+    /**
+     * Progress sink, that sets progress proportionally to the transferred amount
+     * from any thread
+     * <p>
+     * Progress is applied on the main thread at the next animation frame, if it's published
+     * several times before that, only the latest value is applied; transferred amount
+     * of unknown total is ignored
+     *
+     * @see ProgressInputStream
+     * @see ProgressOutputStream
+     * @see ProgressReadableByteChannel
+     * @see ProgressWritableByteChannel
+     * @see ProgressChannels
+     */
+    @NonNull
+    @AnyThread
+    public ProgressSink getProgressSink() {
+        return mProgressSink;
+    }
+
+    /**
+     * Aggregate progress, that is shown by this progress bar,
+     * or {@code null} if it isn't set
+     */
+    @Nullable
+    public AggregateProgress getAggregateProgress() {
+        return mAggregateProgress;
+    }
+
+    /**
+     * Aggregate progress, that is shown by this progress bar, or {@code null} (default)
+     * <p>
+     * Progress and maximum are set to the sums of progress and totals of all aggregate progress
+     * tasks on the main thread, at most once per animation frame and only when they change;
+     * aggregate progress can be shown by one progress bar at a time
+     */
+    public void setAggregateProgress(@Nullable final AggregateProgress progress) {
+        final AggregateProgress previous = mAggregateProgress;
+        if (previous == progress) {
+            return;
+        }
+        if (previous != null) {
+            previous.setUpdateCallback(null);
+        }
+        removeCallbacks(mAggregateProgressReader);
+        mAggregateProgress = progress;
+        mAggregateProgressReader.reset();
+        if (progress != null) {
+            progress.setUpdateCallback(mAggregateProgressReader.mUpdateCallback);
+        }
+    }
+
+    /**
+     * Secondary (buffered) progress value for non-indeterminate mode
+     */
+    public float getSecondaryProgress() {
+        return mDrawable.getSecondaryProgress();
+    }
+
+    /**
+     * Secondary (buffered) progress value for non-indeterminate mode, it's drawn under
+     * the progress with {@linkplain #setSecondaryProgressStrokeColor(int) its own color}
+     * in the same pass, {@code 0} by default
+     */
+    public void setSecondaryProgress(final float progress) {
+        mDrawable.setSecondaryProgress(progress);
+    }
+
+    /**
+     * Secondary progress stroke color
+     */
+    @ColorInt
+    public int getSecondaryProgressStrokeColor() {
+        return mDrawable.getSecondaryProgressStrokeColor();
+    }
+
+    /**
+     * Secondary progress stroke color
+     */
+    public void setSecondaryProgressStrokeColor(@ColorInt final int color) {
+        mDrawable.setSecondaryProgressStrokeColor(color);
+    }
+
+    /**
+     * Number of progress segments
+     */
+    public int getSegmentCount() {
+        return mDrawable.getSegmentCount();
+    }
+
+    /**
+     * Value of the progress segment at the specified index
+     */
+    public float getSegmentValue(final int index) {
+        return mDrawable.getSegmentValue(index);
+    }
+
+    /**
+     * Color of the progress segment at the specified index
+     */
+    @ColorInt
+    public int getSegmentColor(final int index) {
+        return mDrawable.getSegmentColor(index);
+    }
+
+    /**
+     * Progress segments for non-indeterminate mode, segments are drawn one after another
+     * from the start angle, each with its own color, in the same pass; segments that exceed
+     * the maximum are clipped. Progress value isn't drawn while there are segments.
+     * <p>
+     * Changes of segment values are animated the same way as progress changes,
+     * segment arrays are copied.
+     *
+     * @param values Segment values (in progress units), non-negative
+     * @param colors Segment colors, of the same length as values
+     */
+    public void setSegments(@NonNull final float[] values, @NonNull final int[] colors) {
+        mDrawable.setSegments(values, colors);
+    }
+
+    /**
+     * Remove all progress segments
+     */
+    public void clearSegments() {
+        mDrawable.clearSegments();
+    }
+
+    /**
+     * Bind new progress state at once, for example, when a recycled list item is rebound
+     * <p>
+     * Running progress animations and pending progress, that was set from another thread,
+     * are cancelled, secondary progress and segments are cleared, state is applied without
+     * animation and the progress bar is invalidated once; progress changes made after this call
+     * are not animated either until the next draw or frame, so the rest of the new state
+     * can be set with regular setters. Indeterminate animation keeps running if the progress bar
+     * stays indeterminate.
+     */
+    public void bind(final boolean indeterminate, final float progress, final float maximum) {
+        discardPendingProgress();
+        mDrawable.bind(indeterminate, progress, maximum);
+        updateAccessibilityProgress(progress);
+    }
+
+    /**
+     * Bind new progress state and foreground stroke color at once
+     *
+     * @see #bind(boolean, float, float)
+     */
+    public void bind(final boolean indeterminate, final float progress, final float maximum,
+            @ColorInt final int foregroundStrokeColor) {
+        discardPendingProgress();
+        mDrawable.bind(indeterminate, progress, maximum, foregroundStrokeColor);
+        updateAccessibilityProgress(progress);
+    }
+
+    /**
+     * Reset progress state to defaults: non-indeterminate mode, zero progress,
+     * no secondary progress and no segments; maximum and styling are kept
+     *
+     * @see #bind(boolean, float, float)
+     */
+    public void reset() {
+        discardPendingProgress();
+        mDrawable.reset();
+        updateAccessibilityProgress(mDrawable.getProgress());
+    }
+
+    /**
+     * Start a transaction of property changes, that are applied together
+     * by {@link CircularProgressDrawable.Editor#apply()}
+     * <p>
+     * Each setter invalidates the progress bar by itself, and some of them restart
+     * indeterminate animation, so transaction is cheaper when several properties are changed
+     * at once: draw rect is recalculated at most once, indeterminate animation is restarted
+     * at most once and the progress bar is invalidated once
+     */
+    @NonNull
+    public CircularProgressDrawable.Editor edit() {
+        return mDrawable.edit();
+    }
+
     /**
      * Maximum progress for non-indeterminate mode
      */
     public float getMaximum() {
-        return mMaximum;
+        return mDrawable.getMaximum();
     }
 
     /**
      * Maximum progress for non-indeterminate mode
      */
     public void setMaximum(final float maximum) {
-        mMaximum = maximum;
-        invalidate();
+        mDrawable.setMaximum(maximum);
+        updateAccessibilityProgress(mAccessibilityProgress);
+    }
+
+    /**
+     * Set current progress and maximum for non-indeterminate mode from long values
+     * <p>
+     * Progress fraction is calculated with double precision, so progress keeps the same ratio
+     * to maximum for large values, such as transferred byte counts of multi-gigabyte files;
+     * progress and maximum are still stored as floats, so {@link #getProgress()} and
+     * {@link #getMaximum()} are only accurate to float precision, and increments smaller than
+     * it (for example, under 512 bytes with a 4 GiB maximum) are lost
+     */
+    public void setProgress(final long progress, final long maximum) {
+        mDrawable.setProgress(progress, maximum);
+        updateAccessibilityProgress(maximum != 0L ?
+                (float) ((double) progress / maximum * getMaximum()) : (float) progress);
+    }
+
+    /**
+     * Minimum interval between accessibility progress events (in milliseconds)
+     */
+    @IntRange(from = 0)
+    public long getAccessibilityEventInterval() {
+        return mAccessibilityEventInterval;
+    }
+
+    /**
+     * Minimum interval between accessibility progress events (in milliseconds), 200 by default
+     * <p>
+     * Progress changes are reported to accessibility services only when the whole percentage
+     * changes, events within the interval are coalesced into one, that reports the latest
+     * progress; nothing is reported while accessibility is disabled
+     */
+    public void setAccessibilityEventInterval(@IntRange(from = 0) final long interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("Interval can't be negative");
+        }
+        mAccessibilityEventInterval = interval;
+    }
+
+    /**
+     * Minimum visible progress change (in pixels of arc length)
+     */
+    @FloatRange(from = 0f)
+    public float getProgressThreshold() {
+        return mDrawable.getProgressThreshold();
+    }
+
+    /**
+     * Minimum visible progress change (in pixels of arc length), {@code 0} by default
+     * <p>
+     * Progress changes, that move the arc end by less than the threshold since the last
+     * applied change, are stored without animation and invalidation, they're drawn with
+     * the next invalidation; sub-pixel thresholds (for example, {@code 0.5}) drop redundant
+     * frames of frequently updated progress without visible difference
+     */
+    public void setProgressThreshold(@FloatRange(from = 0f) final float threshold) {
+        mDrawable.setProgressThreshold(threshold);
     }
 
     /**
@@ -176,33 +420,47 @@ public final class CircularProgressBar extends View {
      */
     @FloatRange(from = -360f, to = 360f)
     public float getStartAngle() {
-        return mStartAngle;
+        return mDrawable.getStartAngle();
     }
 
     /**
      * Start angle for non-indeterminate mode, between -360 and 360 degrees
      */
     public void setStartAngle(@FloatRange(from = -360f, to = 360f) final float angle) {
-        if (angle < -360f || angle > 360f) {
-            throw new IllegalArgumentException(
-                    "Start angle value should be between -360 and 360 degrees (inclusive)");
-        }
-        mStartAngle = angle;
-        invalidate();
+        mDrawable.setStartAngle(angle);
     }
 
     /**
      * Whether to animate progress for non-indeterminate mode
      */
     public boolean isAnimateProgress() {
-        return mAnimateProgress;
+        return mDrawable.isAnimateProgress();
     }
 
     /**
      * Whether to animate progress for non-indeterminate mode
      */
     public void setAnimateProgress(final boolean animate) {
-        mAnimateProgress = animate;
+        mDrawable.setAnimateProgress(animate);
+    }
+
+    /**
+     * Whether to animate progress with a spring
+     */
+    public boolean isProgressSpringAnimation() {
+        return mDrawable.isProgressSpringAnimation();
+    }
+
+    /**
+     * Whether to animate progress with a critically damped spring, disabled by default
+     * <p>
+     * Spring is retargeted in place on each progress change, keeping its current velocity,
+     * which is smoother than restarting interpolated animation when progress is updated
+     * frequently; progress animation duration is used as approximate spring settle time,
+     * interpolator is ignored
+     */
+    public void setProgressSpringAnimation(final boolean spring) {
+        mDrawable.setProgressSpringAnimation(spring);
     }
 
     /**
@@ -210,20 +468,14 @@ public final class CircularProgressBar extends View {
      */
     @IntRange(from = 0)
     public long getProgressAnimationDuration() {
-        return mProgressAnimator.getDuration();
+        return mDrawable.getProgressAnimationDuration();
     }
 
     /**
      * Progress animation duration for non-indeterminate mode (in milliseconds)
      */
     public void setProgressAnimationDuration(@IntRange(from = 0) final long duration) {
-        if (duration < 0) {
-            throw new IllegalArgumentException("Animation duration can't be negative");
-        }
-        if (mVisible) {
-            endProgressAnimation();
-        }
-        mProgressAnimator.setDuration(duration);
+        mDrawable.setProgressAnimationDuration(duration);
     }
 
     /**
@@ -231,21 +483,14 @@ public final class CircularProgressBar extends View {
      */
     @NonNull
     public TimeInterpolator getProgressAnimationInterpolator() {
-        return mProgressAnimator.getInterpolator();
+        return mDrawable.getProgressAnimationInterpolator();
     }
 
     /**
      * Progress animation interpolator for non-indeterminate mode
      */
     public void setProgressAnimationInterpolator(@NonNull final TimeInterpolator interpolator) {
-        //noinspection ConstantConditions
-        if (interpolator == null) {
-            throw new IllegalArgumentException("Interpolator can't be null");
-        }
-        if (mVisible) {
-            endProgressAnimation();
-        }
-        mProgressAnimator.setInterpolator(interpolator);
+        mDrawable.setProgressAnimationInterpolator(interpolator);
     }
 
     /**
@@ -253,24 +498,14 @@ public final class CircularProgressBar extends View {
      */
     @FloatRange(from = 0f, to = 180f)
     public float getIndeterminateMinimumAngle() {
-        return mIndeterminateMinimumAngle;
+        return mDrawable.getIndeterminateMinimumAngle();
     }
 
     /**
      * Minimum angle for indeterminate mode, between 0 and 180 degrees
      */
     public void setIndeterminateMinimumAngle(@FloatRange(from = 0f, to = 180f) final float angle) {
-        if (angle < 0f || angle > 180f) {
-            throw new IllegalArgumentException(
-                    "Indeterminate minimum angle value should be between 0 and 180 degrees (inclusive)");
-        }
-        cancelIndeterminateAnimations();
-        mIndeterminateMinimumAngle = angle;
-        mIndeterminateSweepAnimator.setFloatValues(360f - angle * 2f);
-        invalidate();
-        if (mVisible && mIndeterminate) {
-            startIndeterminateAnimations();
-        }
+        mDrawable.setIndeterminateMinimumAngle(angle);
     }
 
     /**
@@ -278,22 +513,14 @@ public final class CircularProgressBar extends View {
      */
     @IntRange(from = 0)
     public long getIndeterminateRotationAnimationDuration() {
-        return mIndeterminateRotationAnimator.getDuration();
+        return mDrawable.getIndeterminateRotationAnimationDuration();
     }
 
     /**
      * Rotation animation duration for indeterminate mode (in milliseconds)
      */
     public void setIndeterminateRotationAnimationDuration(@IntRange(from = 0) final long duration) {
-        if (duration < 0) {
-            throw new IllegalArgumentException("Animation duration can't be negative");
-        }
-        cancelIndeterminateAnimations();
-        mIndeterminateRotationAnimator.setDuration(duration);
-        invalidate();
-        if (mVisible && mIndeterminate) {
-            startIndeterminateAnimations();
-        }
+        mDrawable.setIndeterminateRotationAnimationDuration(duration);
     }
 
     /**
@@ -301,7 +528,7 @@ public final class CircularProgressBar extends View {
      */
     @NonNull
     public TimeInterpolator getIndeterminateRotationAnimationInterpolator() {
-        return mIndeterminateRotationAnimator.getInterpolator();
+        return mDrawable.getIndeterminateRotationAnimationInterpolator();
     }
 
     /**
@@ -309,16 +536,7 @@ public final class CircularProgressBar extends View {
      */
     public void setIndeterminateRotationAnimationInterpolator(
             @NonNull final TimeInterpolator interpolator) {
-        //noinspection ConstantConditions
-        if (interpolator == null) {
-            throw new IllegalArgumentException("Interpolator can't be null");
-        }
-        cancelIndeterminateAnimations();
-        mIndeterminateRotationAnimator.setInterpolator(interpolator);
-        invalidate();
-        if (mVisible && mIndeterminate) {
-            startIndeterminateAnimations();
-        }
+        mDrawable.setIndeterminateRotationAnimationInterpolator(interpolator);
     }
 
     /**
@@ -326,22 +544,14 @@ public final class CircularProgressBar extends View {
      */
     @IntRange(from = 0)
     public long getIndeterminateSweepAnimationDuration() {
-        return mIndeterminateSweepAnimator.getDuration();
+        return mDrawable.getIndeterminateSweepAnimationDuration();
     }
 
     /**
      * Sweep animation duration for indeterminate mode (in milliseconds)
      */
     public void setIndeterminateSweepAnimationDuration(@IntRange(from = 0) final long duration) {
-        if (duration < 0) {
-            throw new IllegalArgumentException("Animation duration can't be negative");
-        }
-        cancelIndeterminateAnimations();
-        mIndeterminateSweepAnimator.setDuration(duration);
-        invalidate();
-        if (mVisible && mIndeterminate) {
-            startIndeterminateAnimations();
-        }
+        mDrawable.setIndeterminateSweepAnimationDuration(duration);
     }
 
     /**
@@ -349,7 +559,7 @@ public final class CircularProgressBar extends View {
      */
     @NonNull
     public TimeInterpolator getIndeterminateSweepAnimationInterpolator() {
-        return mIndeterminateSweepAnimator.getInterpolator();
+        return mDrawable.getIndeterminateSweepAnimationInterpolator();
     }
 
     /**
@@ -357,16 +567,110 @@ public final class CircularProgressBar extends View {
      */
     public void setIndeterminateSweepAnimationInterpolator(
             @NonNull final TimeInterpolator interpolator) {
-        //noinspection ConstantConditions
-        if (interpolator == null) {
-            throw new IllegalArgumentException("Interpolator can't be null");
-        }
-        cancelIndeterminateAnimations();
-        mIndeterminateSweepAnimator.setInterpolator(interpolator);
-        invalidate();
-        if (mVisible && mIndeterminate) {
-            startIndeterminateAnimations();
-        }
+        mDrawable.setIndeterminateSweepAnimationInterpolator(interpolator);
+    }
+
+    /**
+     * Whether to drive indeterminate animation by the process-wide shared frame clock
+     * instead of per-view animators
+     */
+    public boolean isIndeterminateSharedClock() {
+        return mDrawable.isIndeterminateSharedClock();
+    }
+
+    /**
+     * Whether to drive indeterminate animation by the process-wide shared frame clock
+     * instead of per-view animators, disabled by default
+     * <p>
+     * Shared clock computes state of all visible indeterminate progress bars
+     * from a single frame callback, which is cheaper when there are many of them on the screen
+     */
+    public void setIndeterminateSharedClock(final boolean sharedClock) {
+        mDrawable.setIndeterminateSharedClock(sharedClock);
+    }
+
+    /**
+     * Whether to run indeterminate animation on the RenderThread when possible
+     */
+    public boolean isIndeterminateRenderThread() {
+        return mDrawable.isIndeterminateRenderThread();
+    }
+
+    /**
+     * Whether to run indeterminate animation on the RenderThread when possible,
+     * disabled by default
+     * <p>
+     * RenderThread animation keeps running while the main thread is busy, it's available on
+     * API 25+ with default indeterminate animation durations, interpolators, minimum angle
+     * and {@link Paint.Cap#BUTT} foreground stroke cap, when foreground stroke width is
+     * proportional to the ring size as for the default 48dp progress bar with 3dp stroke.
+     * Regular indeterminate animation is used when RenderThread animation isn't available
+     */
+    public void setIndeterminateRenderThread(final boolean renderThread) {
+        mDrawable.setIndeterminateRenderThread(renderThread);
+    }
+
+    /**
+     * Target frame rate of indeterminate animation (in frames per second),
+     * {@code 0} if animation runs at the display refresh rate
+     */
+    @FloatRange(from = 0f)
+    public float getIndeterminateTargetFrameRate() {
+        return mDrawable.getIndeterminateTargetFrameRate();
+    }
+
+    /**
+     * Target frame rate of indeterminate animation (in frames per second), {@code 0} (default)
+     * to run at the display refresh rate
+     * <p>
+     * Animation frames are scheduled at the target frame rate instead of each display frame;
+     * when a custom {@link AnimationClock} is set, its state still advances on each clock
+     * frame, but redraws between target frames are skipped. RenderThread animation
+     * isn't used when target frame rate is set
+     */
+    public void setIndeterminateTargetFrameRate(@FloatRange(from = 0f) final float frameRate) {
+        mDrawable.setIndeterminateTargetFrameRate(frameRate);
+    }
+
+    /**
+     * Whether to save power on indeterminate animation
+     */
+    public boolean isIndeterminatePowerSaving() {
+        return mDrawable.isIndeterminatePowerSaving();
+    }
+
+    /**
+     * Whether to save power on indeterminate animation, disabled by default
+     * <p>
+     * Indeterminate animation is limited to 30 frames per second while battery saver mode
+     * is enabled, and it's not redrawn at all while animators are disabled
+     * in the system settings
+     */
+    public void setIndeterminatePowerSaving(final boolean powerSaving) {
+        mDrawable.setIndeterminatePowerSaving(powerSaving);
+    }
+
+    /**
+     * Animation clock, or {@code null} if the default one is used
+     */
+    @Nullable
+    public AnimationClock getAnimationClock() {
+        return mDrawable.getAnimationClock();
+    }
+
+    /**
+     * Animation clock, that drives progress and indeterminate animations,
+     * or {@code null} to use the default (display frame) clock
+     * <p>
+     * Indeterminate animation driven by a specified clock is phase-locked to the clock
+     * time base, so all progress bars that share a clock spin in sync, regardless of when
+     * they were started. Specified clock is used instead of the shared clock and the
+     * RenderThread animation.
+     *
+     * @see ManualAnimationClock
+     */
+    public void setAnimationClock(@Nullable final AnimationClock clock) {
+        mDrawable.setAnimationClock(clock);
     }
 
     /**
@@ -374,20 +678,14 @@ public final class CircularProgressBar extends View {
      */
     @NonNull
     public Paint.Cap getForegroundStrokeCap() {
-        return mBackgroundStrokePaint.getStrokeCap();
+        return mDrawable.getForegroundStrokeCap();
     }
 
     /**
      * Foreground stroke cap
      */
     public void setForegroundStrokeCap(@NonNull final Paint.Cap cap) {
-        //noinspection ConstantConditions
-        if (cap == null) {
-            throw new IllegalArgumentException("Cap can't be null");
-        }
-        mForegroundStrokePaint.setStrokeCap(cap);
-        invalidateForegroundStrokeCapAngle();
-        invalidate();
+        mDrawable.setForegroundStrokeCap(cap);
     }
 
     /**
@@ -395,15 +693,14 @@ public final class CircularProgressBar extends View {
      */
     @ColorInt
     public int getForegroundStrokeColor() {
-        return mForegroundStrokePaint.getColor();
+        return mDrawable.getForegroundStrokeColor();
     }
 
     /**
      * Foreground stroke color
      */
     public void setForegroundStrokeColor(@ColorInt final int color) {
-        mForegroundStrokePaint.setColor(color);
-        invalidate();
+        mDrawable.setForegroundStrokeColor(color);
     }
 
     /**
@@ -411,7 +708,7 @@ public final class CircularProgressBar extends View {
      */
     @FloatRange(from = 0f, to = Float.MAX_VALUE)
     public float getForegroundStrokeWidth() {
-        return mForegroundStrokePaint.getStrokeWidth();
+        return mDrawable.getForegroundStrokeWidth();
     }
 
     /**
@@ -419,12 +716,7 @@ public final class CircularProgressBar extends View {
      */
     public void setForegroundStrokeWidth(
             @FloatRange(from = 0f, to = Float.MAX_VALUE) final float width) {
-        if (width < 0f) {
-            throw new IllegalArgumentException("Width can't be negative");
-        }
-        mForegroundStrokePaint.setStrokeWidth(width);
-        invalidateDrawRect();
-        invalidate();
+        mDrawable.setForegroundStrokeWidth(width);
     }
 
     /**
@@ -432,15 +724,52 @@ public final class CircularProgressBar extends View {
      */
     @ColorInt
     public int getBackgroundStrokeColor() {
-        return mBackgroundStrokePaint.getColor();
+        return mDrawable.getBackgroundStrokeColor();
     }
 
     /**
      * Background stroke color
      */
     public void setBackgroundStrokeColor(@ColorInt final int color) {
-        mBackgroundStrokePaint.setColor(color);
-        invalidate();
+        mDrawable.setBackgroundStrokeColor(color);
+    }
+
+    /**
+     * Foreground stroke gradient colors, or {@code null} if gradient isn't used
+     */
+    @Nullable
+    public int[] getForegroundStrokeGradientColors() {
+        return mDrawable.getForegroundStrokeGradientColors();
+    }
+
+    /**
+     * Foreground stroke gradient colors, evenly distributed around the ring
+     * and rotated together with the progress arc; foreground stroke color is used
+     * if {@code null} (by default). Gradient isn't used for progress segments and
+     * secondary progress, and it disables RenderThread indeterminate animation.
+     *
+     * @param colors At least two colors, or {@code null}
+     */
+    public void setForegroundStrokeGradientColors(@Nullable final int[] colors) {
+        mDrawable.setForegroundStrokeGradientColors(colors);
+    }
+
+    /**
+     * Background stroke gradient colors, or {@code null} if gradient isn't used
+     */
+    @Nullable
+    public int[] getBackgroundStrokeGradientColors() {
+        return mDrawable.getBackgroundStrokeGradientColors();
+    }
+
+    /**
+     * Background stroke gradient colors, evenly distributed around the ring from the start
+     * angle; background stroke color is used if {@code null} (by default)
+     *
+     * @param colors At least two colors, or {@code null}
+     */
+    public void setBackgroundStrokeGradientColors(@Nullable final int[] colors) {
+        mDrawable.setBackgroundStrokeGradientColors(colors);
     }
 
     /**
@@ -448,7 +777,7 @@ public final class CircularProgressBar extends View {
      */
     @FloatRange(from = 0f, to = Float.MAX_VALUE)
     public float getBackgroundStrokeWidth() {
-        return mBackgroundStrokePaint.getStrokeWidth();
+        return mDrawable.getBackgroundStrokeWidth();
     }
 
     /**
@@ -456,91 +785,187 @@ public final class CircularProgressBar extends View {
      */
     public void setBackgroundStrokeWidth(
             @FloatRange(from = 0f, to = Float.MAX_VALUE) final float width) {
-        if (width < 0f) {
-            throw new IllegalArgumentException("Width can't be negative");
-        }
-        mBackgroundStrokePaint.setStrokeWidth(width);
-        invalidateDrawRect();
-        invalidate();
+        mDrawable.setBackgroundStrokeWidth(width);
     }
 
     /**
      * Whether to draw background stroke
      */
     public boolean isDrawBackgroundStroke() {
-        return mDrawBackgroundStroke;
+        return mDrawable.isDrawBackgroundStroke();
     }
 
     /**
      * Whether to draw background stroke
      */
     public void setDrawBackgroundStroke(final boolean draw) {
-        mDrawBackgroundStroke = draw;
-        invalidateDrawRect();
-        invalidate();
+        mDrawable.setDrawBackgroundStroke(draw);
     }
 
-    @Override
-    public void onVisibilityAggregated(final boolean visible) {
-        super.onVisibilityAggregated(visible);
-        mVisible = visible;
-        if (mIndeterminate) {
-            if (visible) {
-                startIndeterminateAnimations();
-            } else {
-                cancelIndeterminateAnimations();
+    /**
+     * Whether to cache background stroke
+     */
+    public boolean isCacheBackgroundStroke() {
+        return mDrawable.isCacheBackgroundStroke();
+    }
+
+    /**
+     * Whether to cache background stroke, disabled by default
+     * <p>
+     * Cached background stroke is rebuilt only when its color, width or size changes,
+     * each frame only draws the cached ring; it's recorded into a display list on API 29+
+     * for hardware accelerated views, otherwise it's rasterized into a bitmap
+     * of the view size, which costs memory
+     */
+    public void setCacheBackgroundStroke(final boolean cache) {
+        mDrawable.setCacheBackgroundStroke(cache);
+    }
+
+    /**
+     * Whether to precompute animation interpolators
+     */
+    public boolean isPrecomputeInterpolators() {
+        return mDrawable.isPrecomputeInterpolators();
+    }
+
+    /**
+     * Whether to precompute animation interpolators, disabled by default
+     * <p>
+     * Progress and indeterminate animation interpolators are sampled into lookup tables
+     * when they're set, so each frame evaluates them with a single array lookup;
+     * tables are shared across all progress bars that use the same interpolator instance
+     * and animation duration. Interpolators should be pure functions of their input.
+     */
+    public void setPrecomputeInterpolators(final boolean precompute) {
+        mDrawable.setPrecomputeInterpolators(precompute);
+    }
+
+    /**
+     * Whether to collect rendering metrics
+     */
+    public boolean isRenderMetricsEnabled() {
+        return mDrawable.isRenderMetricsEnabled();
+    }
+
+    /**
+     * Whether to collect rendering metrics, disabled by default
+     * <p>
+     * When enabled, draw and animation frames are also wrapped into trace sections,
+     * so system traces attribute their cost to the progress bar;
+     * metrics collection has no overhead when disabled
+     *
+     * @see #getRenderMetrics()
+     */
+    public void setRenderMetricsEnabled(final boolean enabled) {
+        mDrawable.setRenderMetricsEnabled(enabled);
+    }
+
+    /**
+     * Rendering metrics snapshot, collected since metrics were enabled or reset,
+     * or {@code null} if metrics are disabled
+     */
+    @Nullable
+    public RenderMetrics getRenderMetrics() {
+        return mDrawable.getRenderMetrics();
+    }
+
+    /**
+     * Reset collected rendering metrics
+     */
+    public void resetRenderMetrics() {
+        mDrawable.resetRenderMetrics();
+    }
+
+    /**
+     * Hardware layer policy
+     */
+    @NonNull
+    public LayerPolicy getLayerPolicy() {
+        return mLayerPolicy;
+    }
+
+    /**
+     * Hardware layer policy, {@link LayerPolicy#OFF} by default
+     * <p>
+     * In {@link LayerPolicy#AUTO} mode, progress bar is promoted to a hardware layer while
+     * it's animating together with a translucent, scaled or rotated ancestry (or itself),
+     * and demoted when it's idle, so layer memory is used only by animating progress bars;
+     * ancestry is checked before each draw of the window while progress bar is animating
+     */
+    public void setLayerPolicy(@NonNull final LayerPolicy policy) {
+        //noinspection ConstantConditions
+        if (policy == null) {
+            throw new IllegalArgumentException("Layer policy can't be null");
+        }
+        mLayerPolicy = policy;
+        if (mLayerAnimating) {
+            mLayerAnimating = false;
+            mLayerObserver.unregister(getViewTreeObserver());
+        }
+        if (policy == LayerPolicy.ALWAYS) {
+            setManagedLayer(true);
+        } else {
+            if (mLayerManaged) {
+                setManagedLayer(false);
+            }
+            if (policy == LayerPolicy.AUTO) {
+                updateAutoLayer();
             }
-        } else if (!visible) {
-            endProgressAnimation();
         }
     }
 
-    @Override
-    protected void onDraw(final Canvas canvas) {
-        if (mDrawBackgroundStroke) {
-            canvas.drawOval(mDrawRect, mBackgroundStrokePaint);
-        }
-        float start;
-        float sweep;
-        if (mIndeterminate) {
-            final float startAngle = mIndeterminateStartAngle;
-            final float sweepAngle = mIndeterminateSweepAngle;
-            final float offsetAngle = mIndeterminateOffsetAngle;
-            final float minimumAngle = mIndeterminateMinimumAngle;
-            if (mIndeterminateGrowMode) {
-                start = startAngle - offsetAngle;
-                sweep = sweepAngle + minimumAngle;
-            } else {
-                start = startAngle + sweepAngle - offsetAngle;
-                sweep = 360f - sweepAngle - minimumAngle;
-            }
-        } else {
-            final float maximum = mMaximum;
-            final float progress = mProgress;
-            start = mStartAngle;
-            if (Math.abs(progress) < Math.abs(maximum)) {
-                sweep = progress / maximum * 360f;
+    /**
+     * Whether to pause animations while progress bar is fully clipped
+     */
+    public boolean isPauseWhenClipped() {
+        return mPauseWhenClipped;
+    }
+
+    /**
+     * Whether to pause animations while progress bar is fully clipped, for example,
+     * scrolled out of the viewport of a scroll view, disabled by default
+     * <p>
+     * On-screen rect of the progress bar is checked before each draw of the window
+     * and on each scroll; paused indeterminate animation is resumed from the same phase
+     */
+    public void setPauseWhenClipped(final boolean pause) {
+        if (mPauseWhenClipped == pause) {
+            return;
+        }
+        mPauseWhenClipped = pause;
+        if (mAttached) {
+            if (pause) {
+                mClipObserver.register(getViewTreeObserver());
             } else {
-                sweep = 360f;
+                mClipObserver.unregister(getViewTreeObserver());
             }
         }
-        final float capAngle = mForegroundStrokeCapAngle;
-        if (capAngle != 0f && Math.abs(sweep) != 360f) {
-            if (sweep > 0) {
-                start += capAngle;
-                sweep -= capAngle * 2f;
-                if (sweep < 0.0001f) {
-                    sweep = 0.0001f;
-                }
-            } else if (sweep < 0) {
-                start -= capAngle;
-                sweep += capAngle * 2f;
-                if (sweep > -0.0001f) {
-                    sweep = -0.0001f;
-                }
-            }
+        updateClipped();
+    }
+
+    @Override
+    public void invalidateDrawable(@NonNull final Drawable drawable) {
+        super.invalidateDrawable(drawable);
+        if (mLayerPolicy == LayerPolicy.AUTO && drawable == mDrawable) {
+            updateAutoLayer();
         }
-        canvas.drawArc(mDrawRect, start, sweep, false, mForegroundStrokePaint);
+    }
+
+    @Override
+    public void onVisibilityAggregated(final boolean visible) {
+        super.onVisibilityAggregated(visible);
+        mVisible = visible;
+        updateDrawableVisibility();
+    }
+
+    @Override
+    protected void onDraw(final Canvas canvas) {
+        mDrawable.draw(canvas);
+    }
+
+    @Override
+    protected boolean verifyDrawable(@NonNull final Drawable who) {
+        return who == mDrawable || super.verifyDrawable(who);
     }
 
     @Override
@@ -549,9 +974,10 @@ public final class CircularProgressBar extends View {
         final int widthSize = MeasureSpec.getSize(widthMeasureSpec);
         final int heightMode = MeasureSpec.getMode(heightMeasureSpec);
         final int heightSize = MeasureSpec.getSize(heightMeasureSpec);
-        final int defaultSize = mDefaultSize;
-        final int defaultWidth = Math.max(getSuggestedMinimumWidth(), defaultSize);
-        final int defaultHeight = Math.max(getSuggestedMinimumHeight(), defaultSize);
+        final int defaultWidth =
+                Math.max(getSuggestedMinimumWidth(), mDrawable.getIntrinsicWidth());
+        final int defaultHeight =
+                Math.max(getSuggestedMinimumHeight(), mDrawable.getIntrinsicHeight());
         final int width;
         final int height;
         switch (widthMode) {
@@ -585,226 +1011,208 @@ public final class CircularProgressBar extends View {
             }
         }
         setMeasuredDimension(width, height);
-        invalidateDrawRect(width, height);
+        mDrawable.setBounds(0, 0, width, height);
     }
 
     @Override
     protected void onSizeChanged(final int width, final int height, final int oldWidth,
             final int oldHeight) {
-        invalidateDrawRect(width, height);
+        mDrawable.setBounds(0, 0, width, height);
     }
 
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
+        mAttached = true;
         mVisible = true;
-        if (mIndeterminate) {
-            startIndeterminateAnimations();
+        if (mPauseWhenClipped) {
+            mClipObserver.register(getViewTreeObserver());
+        }
+        updateDrawableVisibility();
+        if (mLayerPolicy == LayerPolicy.AUTO) {
+            updateAutoLayer();
+        }
+    }
+
+    @Override
+    public CharSequence getAccessibilityClassName() {
+        return ProgressBar.class.getName();
+    }
+
+    @Override
+    public void onInitializeAccessibilityNodeInfo(final AccessibilityNodeInfo info) {
+        super.onInitializeAccessibilityNodeInfo(info);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT && !isIndeterminate()) {
+            final float maximum = getMaximum();
+            final float progress = Math.max(Math.min(mAccessibilityProgress, maximum), 0f);
+            info.setRangeInfo(AccessibilityNodeInfo.RangeInfo
+                    .obtain(AccessibilityNodeInfo.RangeInfo.RANGE_TYPE_FLOAT, 0f, maximum,
+                            progress));
+        }
+    }
+
+    @Override
+    public void onInitializeAccessibilityEvent(final AccessibilityEvent event) {
+        super.onInitializeAccessibilityEvent(event);
+        if (!isIndeterminate()) {
+            event.setItemCount(100);
+            event.setCurrentItemIndex(getAccessibilityPercent());
         }
     }
 
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
+        removeCallbacks(mAccessibilityEventAction);
+        mAccessibilityEventScheduled = false;
+        mAttached = false;
         mVisible = false;
-        cancelIndeterminateAnimations();
-        cancelProgressAnimation();
+        if (mPauseWhenClipped) {
+            mClipObserver.unregister(getViewTreeObserver());
+        }
+        updateDrawableVisibility();
+        if (mLayerPolicy == LayerPolicy.AUTO) {
+            updateAutoLayer();
+        }
+    }
+
+    /**
+     * Progress, that was set from another thread for the previous state, shouldn't be applied
+     */
+    private void discardPendingProgress() {
+        removeCallbacks(mPendingProgressAction);
+        mPendingProgressScheduled.set(false);
+        mProgressSink.discard();
+    }
+
+    private void updateDrawableVisibility() {
+        mDrawable.setVisible(mVisible && !mClipped, false);
+    }
+
+    private void updateClipped() {
+        final boolean clipped = mPauseWhenClipped && mAttached &&
+                !getGlobalVisibleRect(mVisibleRect);
+        if (mClipped != clipped) {
+            mClipped = clipped;
+            updateDrawableVisibility();
+        }
     }
 
     private void initialize(@NonNull final Context context,
             @Nullable final AttributeSet attributeSet, @AttrRes final int defStyleAttr,
             @StyleRes final int defStyleRes) {
-        mForegroundStrokePaint.setStyle(Paint.Style.STROKE);
-        mBackgroundStrokePaint.setStyle(Paint.Style.STROKE);
-        final DisplayMetrics displayMetrics = context.getResources().getDisplayMetrics();
-        mDefaultSize = Math.round(DEFAULT_SIZE_DP * displayMetrics.density);
-        if (attributeSet == null) {
-            mMaximum = DEFAULT_MAXIMUM;
-            mProgress = DEFAULT_PROGRESS;
-            mStartAngle = DEFAULT_START_ANGLE;
-            mIndeterminateMinimumAngle = DEFAULT_INDETERMINATE_MINIMUM_ANGLE;
-            mProgressAnimator.setDuration(DEFAULT_PROGRESS_ANIMATION_DURATION);
-            mIndeterminate = DEFAULT_INDETERMINATE;
-            mAnimateProgress = DEFAULT_ANIMATE_PROGRESS;
-            mDrawBackgroundStroke = DEFAULT_DRAW_BACKGROUND_STROKE;
-            mForegroundStrokePaint.setColor(DEFAULT_FOREGROUND_STROKE_COLOR);
-            mForegroundStrokePaint.setStrokeWidth(
-                    Math.round(DEFAULT_FOREGROUND_STROKE_WIDTH_DP * displayMetrics.density));
-            mForegroundStrokePaint.setStrokeCap(getStrokeCap(DEFAULT_FOREGROUND_STROKE_CAP));
-            mBackgroundStrokePaint.setColor(DEFAULT_BACKGROUND_STROKE_COLOR);
-            mBackgroundStrokePaint.setStrokeWidth(
-                    Math.round(DEFAULT_BACKGROUND_STROKE_WIDTH_DP * displayMetrics.density));
-            mIndeterminateRotationAnimator
-                    .setDuration(DEFAULT_INDETERMINATE_ROTATION_ANIMATION_DURATION);
-            mIndeterminateSweepAnimator.setDuration(DEFAULT_INDETERMINATE_SWEEP_ANIMATION_DURATION);
-        } else {
-            TypedArray attributes = null;
-            try {
-                attributes = context.getTheme()
-                        .obtainStyledAttributes(attributeSet, R.styleable.CircularProgressBar,
-                                defStyleAttr, defStyleRes);
-                setMaximum(attributes
-                        .getFloat(R.styleable.CircularProgressBar_maximum, DEFAULT_MAXIMUM));
-                setProgress(attributes
-                        .getFloat(R.styleable.CircularProgressBar_progress, DEFAULT_PROGRESS));
-                setStartAngle(attributes
-                        .getFloat(R.styleable.CircularProgressBar_startAngle, DEFAULT_START_ANGLE));
-                setIndeterminateMinimumAngle(attributes
-                        .getFloat(R.styleable.CircularProgressBar_indeterminateMinimumAngle,
-                                DEFAULT_INDETERMINATE_MINIMUM_ANGLE));
-                setProgressAnimationDuration(attributes
-                        .getInteger(R.styleable.CircularProgressBar_progressAnimationDuration,
-                                DEFAULT_PROGRESS_ANIMATION_DURATION));
-                setIndeterminateRotationAnimationDuration(attributes.getInteger(
-                        R.styleable.CircularProgressBar_indeterminateRotationAnimationDuration,
-                        DEFAULT_INDETERMINATE_ROTATION_ANIMATION_DURATION));
-                setIndeterminateSweepAnimationDuration(attributes.getInteger(
-                        R.styleable.CircularProgressBar_indeterminateSweepAnimationDuration,
-                        DEFAULT_INDETERMINATE_SWEEP_ANIMATION_DURATION));
-                setForegroundStrokeColor(attributes
-                        .getColor(R.styleable.CircularProgressBar_foregroundStrokeColor,
-                                DEFAULT_FOREGROUND_STROKE_COLOR));
-                setBackgroundStrokeColor(attributes
-                        .getColor(R.styleable.CircularProgressBar_backgroundStrokeColor,
-                                DEFAULT_BACKGROUND_STROKE_COLOR));
-                setForegroundStrokeWidth(attributes
-                        .getDimension(R.styleable.CircularProgressBar_foregroundStrokeWidth,
-                                Math.round(DEFAULT_FOREGROUND_STROKE_WIDTH_DP *
-                                        displayMetrics.density)));
-                setForegroundStrokeCap(getStrokeCap(attributes
-                        .getInt(R.styleable.CircularProgressBar_foregroundStrokeCap,
-                                DEFAULT_FOREGROUND_STROKE_CAP)));
-                setBackgroundStrokeWidth(attributes
-                        .getDimension(R.styleable.CircularProgressBar_backgroundStrokeWidth,
-                                Math.round(DEFAULT_BACKGROUND_STROKE_WIDTH_DP *
-                                        displayMetrics.density)));
-                setAnimateProgress(attributes
-                        .getBoolean(R.styleable.CircularProgressBar_animateProgress,
-                                DEFAULT_ANIMATE_PROGRESS));
-                setDrawBackgroundStroke(attributes
-                        .getBoolean(R.styleable.CircularProgressBar_drawBackgroundStroke,
-                                DEFAULT_DRAW_BACKGROUND_STROKE));
-                setIndeterminate(attributes
-                        .getBoolean(R.styleable.CircularProgressBar_indeterminate,
-                                DEFAULT_INDETERMINATE));
-            } finally {
-                if (attributes != null) {
-                    attributes.recycle();
-                }
-            }
+        final CircularProgressDrawable drawable = new CircularProgressDrawable(context);
+        // Progress bar isn't visible until it's attached to window
+        drawable.setVisible(false, false);
+        drawable.start();
+        drawable.setCallback(this);
+        // Editor changes of maximum and indeterminate mode are reported to accessibility
+        drawable.setProgressRangeCallback(mProgressRangeCallback);
+        mDrawable = drawable;
+        if (attributeSet != null) {
+            final StyleConfig style =
+                    StyleConfig.obtain(context, attributeSet, defStyleAttr, defStyleRes);
+            drawable.applyStyle(style);
+            setPauseWhenClipped(style.isPauseWhenClipped());
+            setLayerPolicy(style.getLayerPolicy());
         }
-        mProgressAnimator.setInterpolator(new DecelerateInterpolator());
-        mProgressAnimator.addUpdateListener(new ProgressUpdateListener());
-        mIndeterminateRotationAnimator.setFloatValues(360f);
-        mIndeterminateRotationAnimator.setRepeatMode(ValueAnimator.RESTART);
-        mIndeterminateRotationAnimator.setRepeatCount(ValueAnimator.INFINITE);
-        mIndeterminateRotationAnimator.setInterpolator(new LinearInterpolator());
-        mIndeterminateRotationAnimator.addUpdateListener(new StartUpdateListener());
-        mIndeterminateSweepAnimator.setFloatValues(360f - mIndeterminateMinimumAngle * 2f);
-        mIndeterminateSweepAnimator.setInterpolator(new DecelerateInterpolator());
-        mIndeterminateSweepAnimator.addUpdateListener(new SweepUpdateListener());
-        mIndeterminateSweepAnimator.addListener(new SweepAnimatorListener());
+        mAccessibilityManager =
+                (AccessibilityManager) context.getSystemService(Context.ACCESSIBILITY_SERVICE);
+        mAccessibilityProgress = drawable.getProgress();
+        mAccessibilityPercent = getAccessibilityPercent();
     }
 
-    private void invalidateDrawRect() {
-        final int width = getWidth();
-        final int height = getHeight();
-        if (width > 0 && height > 0) {
-            invalidateDrawRect(width, height);
+    private void updateAccessibilityProgress(final float progress) {
+        mAccessibilityProgress = progress;
+        final AccessibilityManager accessibilityManager = mAccessibilityManager;
+        if (accessibilityManager == null || !accessibilityManager.isEnabled() ||
+                mAccessibilityEventScheduled || isIndeterminate() ||
+                getAccessibilityPercent() == mAccessibilityPercent) {
+            return;
         }
+        // Event reports the latest progress when it's sent
+        mAccessibilityEventScheduled = true;
+        final long delay = mAccessibilityEventTime + mAccessibilityEventInterval -
+                SystemClock.uptimeMillis();
+        postDelayed(mAccessibilityEventAction, Math.max(delay, 0L));
     }
 
-    private void invalidateDrawRect(final int width, final int height) {
-        final float thickness;
-        if (mDrawBackgroundStroke) {
-            thickness = Math.max(mForegroundStrokePaint.getStrokeWidth(),
-                    mBackgroundStrokePaint.getStrokeWidth());
-        } else {
-            thickness = mForegroundStrokePaint.getStrokeWidth();
-        }
-        if (width > height) {
-            final float offset = (width - height) / 2f;
-            mDrawRect.set(offset + thickness / 2f + 1f, thickness / 2f + 1f,
-                    width - offset - thickness / 2f - 1f, height - thickness / 2f - 1f);
-        } else if (width < height) {
-            final float offset = (height - width) / 2f;
-            mDrawRect.set(thickness / 2f + 1f, offset + thickness / 2f + 1f,
-                    width - thickness / 2f - 1f, height - offset - thickness / 2f - 1f);
-        } else {
-            mDrawRect.set(thickness / 2f + 1f, thickness / 2f + 1f, width - thickness / 2f - 1f,
-                    height - thickness / 2f - 1f);
+    private int getAccessibilityPercent() {
+        final float maximum = getMaximum();
+        if (maximum == 0f) {
+            return 0;
         }
-        invalidateForegroundStrokeCapAngle();
+        return Math.round(Math.max(Math.min(mAccessibilityProgress / maximum, 1f), 0f) * 100f);
     }
 
-    private void invalidateForegroundStrokeCapAngle() {
-        final Paint.Cap strokeCap = mForegroundStrokePaint.getStrokeCap();
-        if (strokeCap == null) {
-            mForegroundStrokeCapAngle = 0f;
+    /**
+     * Animations don't invalidate progress bar after they end, and ancestry transforms can start
+     * or end at any time, so both are checked before each draw while it's animating
+     */
+    private void updateAutoLayer() {
+        final boolean animating = mAttached && mDrawable.isAnimating();
+        if (animating == mLayerAnimating) {
             return;
         }
-        switch (strokeCap) {
-            case SQUARE:
-            case ROUND: {
-                final float r = mDrawRect.width() / 2f;
-                if (r != 0) {
-                    mForegroundStrokeCapAngle =
-                            90f * mForegroundStrokePaint.getStrokeWidth() / (float) Math.PI / r;
-                } else {
-                    mForegroundStrokeCapAngle = 0f;
-                }
-                break;
-            }
-            case BUTT:
-            default: {
-                mForegroundStrokeCapAngle = 0f;
-                break;
+        mLayerAnimating = animating;
+        if (animating) {
+            mLayerObserver.register(getViewTreeObserver());
+            updateAncestryLayer();
+        } else {
+            mLayerObserver.unregister(getViewTreeObserver());
+            if (mLayerManaged) {
+                setManagedLayer(false);
             }
         }
     }
 
-    private void setProgressInternal(final float progress) {
-        mProgress = progress;
-        invalidate();
-    }
-
-    private void setProgressAnimated(final float progress) {
-        mProgressAnimator.setFloatValues(mProgress, progress);
-        mProgressAnimator.start();
-    }
-
-    private void endProgressAnimation() {
-        if (mProgressAnimator.isRunning()) {
-            mProgressAnimator.end();
+    private void updateAncestryLayer() {
+        final boolean layer = hasTransformedAncestry();
+        if (layer != mLayerManaged) {
+            setManagedLayer(layer);
         }
     }
 
-    private void cancelProgressAnimation() {
-        if (mProgressAnimator.isRunning()) {
-            mProgressAnimator.cancel();
-        }
+    private void setManagedLayer(final boolean layer) {
+        mLayerManaged = layer;
+        setLayerType(layer ? LAYER_TYPE_HARDWARE : LAYER_TYPE_NONE, null);
     }
 
-    private void cancelIndeterminateAnimations() {
-        if (mIndeterminateRotationAnimator.isRunning()) {
-            mIndeterminateRotationAnimator.cancel();
-        }
-        if (mIndeterminateSweepAnimator.isRunning()) {
-            mIndeterminateSweepAnimator.cancel();
+    private boolean hasTransformedAncestry() {
+        View view = this;
+        for (; ; ) {
+            if (view.getAlpha() < 1f || view.getScaleX() != 1f || view.getScaleY() != 1f ||
+                    view.getRotation() != 0f || view.getRotationX() != 0f ||
+                    view.getRotationY() != 0f) {
+                return true;
+            }
+            final ViewParent parent = view.getParent();
+            if (parent instanceof View) {
+                view = (View) parent;
+            } else {
+                return false;
+            }
         }
     }
 
-    private void startIndeterminateAnimations() {
-        if (!mIndeterminateRotationAnimator.isRunning()) {
-            mIndeterminateRotationAnimator.start();
-        }
-        if (!mIndeterminateSweepAnimator.isRunning()) {
-            mIndeterminateSweepAnimator.start();
+    @NonNull
+    static LayerPolicy getLayerPolicy(final int value) {
+        switch (value) {
+            case 2: {
+                return LayerPolicy.ALWAYS;
+            }
+            case 1: {
+                return LayerPolicy.AUTO;
+            }
+            case 0:
+            default: {
+                return LayerPolicy.OFF;
+            }
         }
     }
 
     @NonNull
-    private static Paint.Cap getStrokeCap(final int value) {
+    static Paint.Cap getStrokeCap(final int value) {
         switch (value) {
             case 2: {
                 return Paint.Cap.SQUARE;
@@ -819,67 +1227,181 @@ public final class CircularProgressBar extends View {
         }
     }
 
-    private final class ProgressUpdateListener implements ValueAnimator.AnimatorUpdateListener {
+    private final class ClipObserver implements ViewTreeObserver.OnPreDrawListener,
+            ViewTreeObserver.OnScrollChangedListener {
+        private ViewTreeObserver mObserver;
+
+        void register(@NonNull final ViewTreeObserver observer) {
+            unregister(observer);
+            observer.addOnPreDrawListener(this);
+            observer.addOnScrollChangedListener(this);
+            mObserver = observer;
+        }
+
+        void unregister(@NonNull final ViewTreeObserver observer) {
+            // View tree observer could have been replaced since registration
+            final ViewTreeObserver registeredObserver = mObserver;
+            if (registeredObserver != null && registeredObserver.isAlive()) {
+                registeredObserver.removeOnPreDrawListener(this);
+                registeredObserver.removeOnScrollChangedListener(this);
+            }
+            if (observer.isAlive()) {
+                observer.removeOnPreDrawListener(this);
+                observer.removeOnScrollChangedListener(this);
+            }
+            mObserver = null;
+        }
+
+        @Override
+        public boolean onPreDraw() {
+            updateClipped();
+            return true;
+        }
+
         @Override
-        public void onAnimationUpdate(final ValueAnimator animation) {
-            setProgressInternal(((Number) animation.getAnimatedValue()).floatValue());
+        public void onScrollChanged() {
+            updateClipped();
         }
     }
 
-    private final class StartUpdateListener implements ValueAnimator.AnimatorUpdateListener {
+    private final class LayerObserver implements ViewTreeObserver.OnPreDrawListener {
+        private ViewTreeObserver mObserver;
+
+        void register(@NonNull final ViewTreeObserver observer) {
+            unregister(observer);
+            observer.addOnPreDrawListener(this);
+            mObserver = observer;
+        }
+
+        void unregister(@NonNull final ViewTreeObserver observer) {
+            // View tree observer could have been replaced since registration
+            final ViewTreeObserver registeredObserver = mObserver;
+            if (registeredObserver != null && registeredObserver.isAlive()) {
+                registeredObserver.removeOnPreDrawListener(this);
+            }
+            if (observer.isAlive()) {
+                observer.removeOnPreDrawListener(this);
+            }
+            mObserver = null;
+        }
+
         @Override
-        public void onAnimationUpdate(final ValueAnimator animation) {
-            mIndeterminateStartAngle = ((Number) animation.getAnimatedValue()).floatValue();
-            invalidate();
+        public boolean onPreDraw() {
+            if (mLayerPolicy == LayerPolicy.AUTO) {
+                if (mDrawable.isAnimating()) {
+                    updateAncestryLayer();
+                } else {
+                    updateAutoLayer();
+                }
+            }
+            return true;
         }
     }
 
-    private final class SweepUpdateListener implements ValueAnimator.AnimatorUpdateListener {
+    private final class PendingProgressAction implements Runnable {
         @Override
-        public void onAnimationUpdate(final ValueAnimator animation) {
-            mIndeterminateSweepAngle = ((Number) animation.getAnimatedValue()).floatValue();
+        public void run() {
+            // Flag is cleared before reading value, newer values will be scheduled again
+            mPendingProgressScheduled.set(false);
+            setProgress(Float.intBitsToFloat(mPendingProgress.get()));
         }
     }
 
-    private final class SweepAnimatorListener implements ValueAnimator.AnimatorListener {
-        private boolean mCancelled;
+    private final class TransferProgressSink implements ProgressSink, Runnable {
+        private final AtomicInteger mFraction = new AtomicInteger();
+        private final AtomicBoolean mScheduled = new AtomicBoolean();
+
+        @Override
+        public void onProgress(final long transferred, final long total) {
+            if (total <= 0L) {
+                return;
+            }
+            final float fraction = (float) Math.min((double) transferred / total, 1d);
+            mFraction.set(Float.floatToRawIntBits(fraction));
+            if (mScheduled.compareAndSet(false, true)) {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                    postOnAnimation(this);
+                } else {
+                    post(this);
+                }
+            }
+        }
 
         @Override
-        public void onAnimationStart(final Animator animation) {
-            mCancelled = false;
+        public void run() {
+            // Flag is cleared before reading value, newer values will be scheduled again
+            mScheduled.set(false);
+            setProgress(Float.intBitsToFloat(mFraction.get()) * getMaximum());
         }
 
+        void discard() {
+            removeCallbacks(this);
+            mScheduled.set(false);
+        }
+    }
+
+    private final class AggregateProgressReader implements Runnable {
+        private final Runnable mUpdateCallback = new UpdateCallback();
+        private long mProgress = -1L;
+        private long mTotal = -1L;
+
         @Override
-        public void onAnimationEnd(final Animator animation) {
-            if (!mCancelled) {
-                post(mSweepRestartAction);
+        public void run() {
+            final AggregateProgress aggregateProgress = mAggregateProgress;
+            if (aggregateProgress == null) {
+                return;
+            }
+            // Flag is cleared before reading slots, newer changes will be scheduled again
+            aggregateProgress.onUpdated();
+            final long total = aggregateProgress.getTotal();
+            final long progress = aggregateProgress.getProgress();
+            if (total != mTotal || progress != mProgress) {
+                mTotal = total;
+                mProgress = progress;
+                if (total > 0L) {
+                    setProgress(progress, total);
+                } else {
+                    setProgress((float) progress);
+                }
             }
         }
 
-        @Override
-        public void onAnimationCancel(final Animator animation) {
-            mCancelled = true;
+        void reset() {
+            mProgress = -1L;
+            mTotal = -1L;
         }
 
+        private final class UpdateCallback implements Runnable {
+            @Override
+            public void run() {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                    postOnAnimation(AggregateProgressReader.this);
+                } else {
+                    post(AggregateProgressReader.this);
+                }
+            }
+        }
+    }
+
+    private final class ProgressRangeCallback implements Runnable {
         @Override
-        public void onAnimationRepeat(final Animator animation) {
-            // Do nothing
+        public void run() {
+            updateAccessibilityProgress(mAccessibilityProgress);
         }
     }
 
-    private final class SweepRestartAction implements Runnable {
+    private final class AccessibilityEventAction implements Runnable {
         @Override
         public void run() {
-            mIndeterminateGrowMode = !mIndeterminateGrowMode;
-            if (mIndeterminateGrowMode) {
-                mIndeterminateOffsetAngle =
-                        (mIndeterminateOffsetAngle + mIndeterminateMinimumAngle * 2f) % 360f;
-            }
-            if (mIndeterminateSweepAnimator.isRunning()) {
-                mIndeterminateSweepAnimator.cancel();
+            mAccessibilityEventScheduled = false;
+            if (isIndeterminate()) {
+                return;
             }
-            if (mVisible) {
-                mIndeterminateSweepAnimator.start();
+            final int percent = getAccessibilityPercent();
+            if (percent != mAccessibilityPercent) {
+                mAccessibilityPercent = percent;
+                mAccessibilityEventTime = SystemClock.uptimeMillis();
+                sendAccessibilityEvent(AccessibilityEvent.TYPE_VIEW_SELECTED);
             }
         }
     }
@@ -0,0 +1,2713 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import android.animation.Animator;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import android.graphics.SweepGradient;
+import android.graphics.drawable.Animatable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.os.SystemClock;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.FloatRange;
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+/**
+ * Circular progress drawable, draws the same ring as {@link CircularProgressBar}
+ * (which delegates its rendering to this drawable) and can be used without an extra view,
+ * in image views, compound drawables, backgrounds, etc.
+ * <p>
+ * Indeterminate animation runs while the drawable is visible and started
+ * (see {@link #start()} and {@link #stop()})
+ */
+public final class CircularProgressDrawable extends Drawable implements Animatable {
+    static final float DEFAULT_SIZE_DP = 48f;
+    static final float DEFAULT_MAXIMUM = 100f;
+    static final float DEFAULT_PROGRESS = 0f;
+    static final float DEFAULT_FOREGROUND_STROKE_WIDTH_DP = 3f;
+    static final float DEFAULT_BACKGROUND_STROKE_WIDTH_DP = 1f;
+    static final float DEFAULT_START_ANGLE = 270f;
+    static final float DEFAULT_INDETERMINATE_MINIMUM_ANGLE = 60f;
+    static final int DEFAULT_FOREGROUND_STROKE_COLOR = Color.BLUE;
+    static final int DEFAULT_BACKGROUND_STROKE_COLOR = Color.BLACK;
+    static final int DEFAULT_SECONDARY_PROGRESS_STROKE_COLOR = 0x400000ff;
+    static final float DEFAULT_SECONDARY_PROGRESS = 0f;
+    static final float DEFAULT_PROGRESS_THRESHOLD = 0f;
+    static final int DEFAULT_PROGRESS_ANIMATION_DURATION = 100;
+    static final int DEFAULT_INDETERMINATE_ROTATION_ANIMATION_DURATION = 1200;
+    static final int DEFAULT_INDETERMINATE_SWEEP_ANIMATION_DURATION = 600;
+    static final boolean DEFAULT_ANIMATE_PROGRESS = true;
+    static final boolean DEFAULT_PROGRESS_SPRING_ANIMATION = false;
+    static final boolean DEFAULT_DRAW_BACKGROUND_STROKE = false;
+    static final boolean DEFAULT_INDETERMINATE = false;
+    static final boolean DEFAULT_INDETERMINATE_SHARED_CLOCK = false;
+    static final boolean DEFAULT_INDETERMINATE_RENDER_THREAD = false;
+    static final float DEFAULT_INDETERMINATE_TARGET_FRAME_RATE = 0f;
+    static final boolean DEFAULT_INDETERMINATE_POWER_SAVING = false;
+    private static final float POWER_SAVING_FRAME_RATE = 30f;
+    private static final long FRAME_INTERVAL_TOLERANCE_MILLIS = 4L;
+    private static final long ANIMATORS_DISABLED_CHECK_INTERVAL_MILLIS = 1000L;
+    static final boolean DEFAULT_CACHE_BACKGROUND_STROKE = false;
+    static final boolean DEFAULT_PRECOMPUTE_INTERPOLATORS = false;
+    private static final TimeInterpolator DEFAULT_PROGRESS_ANIMATION_INTERPOLATOR =
+            new DecelerateInterpolator();
+    private static final TimeInterpolator DEFAULT_INDETERMINATE_ROTATION_ANIMATION_INTERPOLATOR =
+            new LinearInterpolator();
+    private static final TimeInterpolator DEFAULT_INDETERMINATE_SWEEP_ANIMATION_INTERPOLATOR =
+            new DecelerateInterpolator();
+    private static final float RENDER_THREAD_DRAWABLE_VIEWPORT_SIZE = 48f;
+    private static final float RENDER_THREAD_DRAWABLE_RADIUS = 21.5f;
+    private static final float RENDER_THREAD_DRAWABLE_STROKE_WIDTH = 3f;
+    private static final float RENDER_THREAD_STROKE_WIDTH_TOLERANCE = 0.5f;
+    private static final int CHANGE_MAXIMUM = 1;
+    private static final int CHANGE_START_ANGLE = 1 << 1;
+    private static final int CHANGE_INDETERMINATE = 1 << 2;
+    private static final int CHANGE_INDETERMINATE_MINIMUM_ANGLE = 1 << 3;
+    private static final int CHANGE_FOREGROUND_STROKE_COLOR = 1 << 4;
+    private static final int CHANGE_BACKGROUND_STROKE_COLOR = 1 << 5;
+    private static final int CHANGE_SECONDARY_PROGRESS_STROKE_COLOR = 1 << 6;
+    private static final int CHANGE_FOREGROUND_STROKE_GRADIENT_COLORS = 1 << 7;
+    private static final int CHANGE_BACKGROUND_STROKE_GRADIENT_COLORS = 1 << 8;
+    private static final int CHANGE_FOREGROUND_STROKE_WIDTH = 1 << 9;
+    private static final int CHANGE_BACKGROUND_STROKE_WIDTH = 1 << 10;
+    private static final int CHANGE_FOREGROUND_STROKE_CAP = 1 << 11;
+    private static final int CHANGE_DRAW_BACKGROUND_STROKE = 1 << 12;
+    private static final int CHANGE_CACHE_BACKGROUND_STROKE = 1 << 13;
+    private static final int CHANGE_ANIMATE_PROGRESS = 1 << 14;
+    private static final int CHANGE_PROGRESS_SPRING_ANIMATION = 1 << 15;
+    private static final int CHANGE_PROGRESS_ANIMATION_DURATION = 1 << 16;
+    private static final int CHANGE_PROGRESS_ANIMATION_INTERPOLATOR = 1 << 17;
+    private static final int CHANGE_INDETERMINATE_ROTATION_ANIMATION_DURATION = 1 << 18;
+    private static final int CHANGE_INDETERMINATE_ROTATION_ANIMATION_INTERPOLATOR = 1 << 19;
+    private static final int CHANGE_INDETERMINATE_SWEEP_ANIMATION_DURATION = 1 << 20;
+    private static final int CHANGE_INDETERMINATE_SWEEP_ANIMATION_INTERPOLATOR = 1 << 21;
+    private static final int CHANGE_INDETERMINATE_SHARED_CLOCK = 1 << 22;
+    private static final int CHANGE_INDETERMINATE_RENDER_THREAD = 1 << 23;
+    private static final int CHANGE_INDETERMINATE_TARGET_FRAME_RATE = 1 << 24;
+    private static final int CHANGE_INDETERMINATE_POWER_SAVING = 1 << 25;
+    private static final int CHANGE_PRECOMPUTE_INTERPOLATORS = 1 << 26;
+    private static final int CHANGES_PROGRESS_ANIMATION =
+            CHANGE_PROGRESS_SPRING_ANIMATION | CHANGE_PROGRESS_ANIMATION_DURATION |
+                    CHANGE_PROGRESS_ANIMATION_INTERPOLATOR | CHANGE_PRECOMPUTE_INTERPOLATORS;
+    private static final int CHANGES_INDETERMINATE_ANIMATORS =
+            CHANGE_INDETERMINATE_ROTATION_ANIMATION_DURATION |
+                    CHANGE_INDETERMINATE_ROTATION_ANIMATION_INTERPOLATOR |
+                    CHANGE_INDETERMINATE_SWEEP_ANIMATION_DURATION |
+                    CHANGE_INDETERMINATE_SWEEP_ANIMATION_INTERPOLATOR |
+                    CHANGE_PRECOMPUTE_INTERPOLATORS;
+    private static final int CHANGES_INDETERMINATE_ANIMATION =
+            CHANGES_INDETERMINATE_ANIMATORS | CHANGE_INDETERMINATE |
+                    CHANGE_INDETERMINATE_MINIMUM_ANGLE | CHANGE_FOREGROUND_STROKE_GRADIENT_COLORS |
+                    CHANGE_INDETERMINATE_SHARED_CLOCK | CHANGE_INDETERMINATE_RENDER_THREAD |
+                    CHANGE_INDETERMINATE_TARGET_FRAME_RATE | CHANGE_INDETERMINATE_POWER_SAVING;
+    private static final int CHANGES_DRAW_RECT =
+            CHANGE_FOREGROUND_STROKE_WIDTH | CHANGE_BACKGROUND_STROKE_WIDTH |
+                    CHANGE_DRAW_BACKGROUND_STROKE;
+    private static final int CHANGES_STROKE_COLORS =
+            CHANGE_FOREGROUND_STROKE_COLOR | CHANGE_BACKGROUND_STROKE_COLOR |
+                    CHANGE_FOREGROUND_STROKE_GRADIENT_COLORS |
+                    CHANGE_BACKGROUND_STROKE_GRADIENT_COLORS;
+    private final Runnable mSweepRestartAction = new SweepRestartAction();
+    private final Runnable mIndeterminateFrameAction = new IndeterminateFrameAction();
+    private final Runnable mUnbindAction = new UnbindAction();
+    private final Drawable.Callback mChildCallback = new ChildCallback();
+    private final AnimationClock.Callback mIndeterminateFrameCallback =
+            new IndeterminateFrameCallback();
+    private final AnimationClock.Callback mProgressFrameCallback = new ProgressFrameCallback();
+    private final AnimationClock.Callback mSegmentFrameCallback = new SegmentFrameCallback();
+    private final RectF mDrawRect = new RectF();
+    private final ArcGeometry mGeometry = new ArcGeometry();
+    private final Matrix mStrokeShaderMatrix = new Matrix();
+    private final FloatAnimation mProgressAnimation =
+            new FloatAnimation(DEFAULT_PROGRESS_ANIMATION_INTERPOLATOR,
+                    DEFAULT_PROGRESS_ANIMATION_DURATION);
+    private final ProgressSpring mProgressSpring =
+            new ProgressSpring(DEFAULT_PROGRESS_ANIMATION_DURATION);
+    private final FloatAnimation mSecondaryProgressAnimation =
+            new FloatAnimation(DEFAULT_PROGRESS_ANIMATION_INTERPOLATOR,
+                    DEFAULT_PROGRESS_ANIMATION_DURATION);
+    private final FloatAnimation mSegmentAnimation =
+            new FloatAnimation(DEFAULT_PROGRESS_ANIMATION_INTERPOLATOR,
+                    DEFAULT_PROGRESS_ANIMATION_DURATION);
+    private final ValueAnimator mIndeterminateRotationAnimator = new ValueAnimator();
+    private final ValueAnimator mIndeterminateSweepAnimator = new ValueAnimator();
+    private final Paint mForegroundStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mBackgroundStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Resources mResources;
+    private final Context mContext;
+    private final int mDefaultSize;
+    private Drawable mRenderThreadIndeterminateDrawable = null;
+    private BackgroundStrokeCache mBackgroundStrokeCache = null;
+    private RenderMetricsCollector mRenderMetrics = null;
+    private Runnable mProgressRangeCallback = null;
+    private AnimationClock mAnimationClock = null;
+    private Shader mForegroundStrokeShader = null;
+    private Shader mBackgroundStrokeShader = null;
+    private int[] mForegroundStrokeGradientColors = null;
+    private int[] mBackgroundStrokeGradientColors = null;
+    private TimeInterpolator mProgressAnimationInterpolator = null;
+    private TimeInterpolator mIndeterminateRotationAnimationInterpolator = null;
+    private TimeInterpolator mIndeterminateSweepAnimationInterpolator = null;
+    private float[] mSegmentValues = null;
+    private float[] mSegmentStartValues = null;
+    private float[] mSegmentEndValues = null;
+    private int[] mSegmentColors = null;
+    private int mSegmentCount = 0;
+    private int mForegroundStrokeColor = 0;
+    private int mBackgroundStrokeColor = 0;
+    private int mSecondaryProgressStrokeColor = 0;
+    private int mAlpha = 255;
+    private float mMaximum = 0f;
+    private float mProgress = 0f;
+    private float mSecondaryProgress = 0f;
+    private float mStartAngle = 0f;
+    private float mIndeterminateStartAngle = 0f;
+    private float mIndeterminateSweepAngle = 0f;
+    private float mIndeterminateOffsetAngle = 0f;
+    private float mIndeterminateMinimumAngle = 0f;
+    private float mIndeterminateBaseOffsetAngle = 0f;
+    private float mIndeterminateTargetFrameRate = 0f;
+    private float mProgressThreshold = 0f;
+    private float mProgressThresholdReference = Float.NaN;
+    private long mIndeterminateStartTime = 0L;
+    private long mIndeterminateLastFrameTime = 0L;
+    private long mIndeterminatePausedElapsedTime = -1L;
+    private long mIndeterminatePausedRotationPlayTime = -1L;
+    private long mIndeterminatePausedSweepPlayTime = -1L;
+    private boolean mIndeterminate = false;
+    private boolean mAnimateProgress = false;
+    private boolean mProgressSpringAnimation = false;
+    private boolean mDrawBackgroundStroke = false;
+    private boolean mIndeterminateGrowMode = false;
+    private boolean mIndeterminateBaseGrowMode = false;
+    private boolean mIndeterminateSharedClock = false;
+    private boolean mIndeterminateClockRunning = false;
+    private boolean mIndeterminateRenderThread = false;
+    private boolean mIndeterminatePowerSaving = false;
+    private boolean mPrecomputeInterpolators = false;
+    private boolean mStarted = false;
+    private boolean mBound = false;
+
+    public CircularProgressDrawable(@NonNull final Context context) {
+        mResources = context.getResources();
+        mContext = context;
+        final float density = mResources.getDisplayMetrics().density;
+        mDefaultSize = Math.round(DEFAULT_SIZE_DP * density);
+        mMaximum = DEFAULT_MAXIMUM;
+        mProgress = DEFAULT_PROGRESS;
+        mSecondaryProgress = DEFAULT_SECONDARY_PROGRESS;
+        mSecondaryProgressStrokeColor = DEFAULT_SECONDARY_PROGRESS_STROKE_COLOR;
+        mStartAngle = DEFAULT_START_ANGLE;
+        mIndeterminateMinimumAngle = DEFAULT_INDETERMINATE_MINIMUM_ANGLE;
+        mIndeterminate = DEFAULT_INDETERMINATE;
+        mIndeterminateSharedClock = DEFAULT_INDETERMINATE_SHARED_CLOCK;
+        mIndeterminateRenderThread = DEFAULT_INDETERMINATE_RENDER_THREAD;
+        mIndeterminateTargetFrameRate = DEFAULT_INDETERMINATE_TARGET_FRAME_RATE;
+        mIndeterminatePowerSaving = DEFAULT_INDETERMINATE_POWER_SAVING;
+        mPrecomputeInterpolators = DEFAULT_PRECOMPUTE_INTERPOLATORS;
+        mProgressAnimationInterpolator = DEFAULT_PROGRESS_ANIMATION_INTERPOLATOR;
+        mIndeterminateRotationAnimationInterpolator =
+                DEFAULT_INDETERMINATE_ROTATION_ANIMATION_INTERPOLATOR;
+        mIndeterminateSweepAnimationInterpolator =
+                DEFAULT_INDETERMINATE_SWEEP_ANIMATION_INTERPOLATOR;
+        mAnimateProgress = DEFAULT_ANIMATE_PROGRESS;
+        mProgressSpringAnimation = DEFAULT_PROGRESS_SPRING_ANIMATION;
+        mDrawBackgroundStroke = DEFAULT_DRAW_BACKGROUND_STROKE;
+        mForegroundStrokeColor = DEFAULT_FOREGROUND_STROKE_COLOR;
+        mBackgroundStrokeColor = DEFAULT_BACKGROUND_STROKE_COLOR;
+        mForegroundStrokePaint.setStyle(Paint.Style.STROKE);
+        mForegroundStrokePaint.setColor(DEFAULT_FOREGROUND_STROKE_COLOR);
+        mForegroundStrokePaint
+                .setStrokeWidth(Math.round(DEFAULT_FOREGROUND_STROKE_WIDTH_DP * density));
+        mForegroundStrokePaint.setStrokeCap(Paint.Cap.BUTT);
+        mBackgroundStrokePaint.setStyle(Paint.Style.STROKE);
+        mBackgroundStrokePaint.setColor(DEFAULT_BACKGROUND_STROKE_COLOR);
+        mBackgroundStrokePaint
+                .setStrokeWidth(Math.round(DEFAULT_BACKGROUND_STROKE_WIDTH_DP * density));
+        mIndeterminateRotationAnimator
+                .setDuration(DEFAULT_INDETERMINATE_ROTATION_ANIMATION_DURATION);
+        mIndeterminateRotationAnimator.setFloatValues(0f, 1f);
+        mIndeterminateRotationAnimator.setRepeatMode(ValueAnimator.RESTART);
+        mIndeterminateRotationAnimator.setRepeatCount(ValueAnimator.INFINITE);
+        mIndeterminateRotationAnimator
+                .setInterpolator(DEFAULT_INDETERMINATE_ROTATION_ANIMATION_INTERPOLATOR);
+        mIndeterminateRotationAnimator.addUpdateListener(new StartUpdateListener());
+        mIndeterminateSweepAnimator.setDuration(DEFAULT_INDETERMINATE_SWEEP_ANIMATION_DURATION);
+        mIndeterminateSweepAnimator.setFloatValues(0f, 1f);
+        mIndeterminateSweepAnimator
+                .setInterpolator(DEFAULT_INDETERMINATE_SWEEP_ANIMATION_INTERPOLATOR);
+        mIndeterminateSweepAnimator.addUpdateListener(new SweepUpdateListener());
+        mIndeterminateSweepAnimator.addListener(new SweepAnimatorListener());
+    }
+
+    /**
+     * Indeterminate mode
+     */
+    public boolean isIndeterminate() {
+        return mIndeterminate;
+    }
+
+    /**
+     * Indeterminate mode, disabled by default
+     */
+    public void setIndeterminate(final boolean indeterminate) {
+        cancelIndeterminateAnimations();
+        mIndeterminate = indeterminate;
+        invalidateSelf();
+        if (isVisible() && indeterminate) {
+            endProgressAnimation();
+            if (mStarted) {
+                startIndeterminateAnimations();
+            }
+        }
+    }
+
+    /**
+     * Get current progress value for non-indeterminate mode
+     */
+    public float getProgress() {
+        return mProgress;
+    }
+
+    /**
+     * Set current progress value for non-indeterminate mode
+     */
+    public void setProgress(final float progress) {
+        if (isBelowProgressThreshold(progress)) {
+            // Value is still stored, it's drawn with the next invalidation
+            mProgress = progress;
+            return;
+        }
+        mProgressThresholdReference = progress;
+        if (mIndeterminate) {
+            mProgress = progress;
+        } else if (isProgressAnimationAllowed() && mProgressSpringAnimation) {
+            setProgressSpring(progress);
+        } else {
+            cancelProgressAnimation();
+            if (isProgressAnimationAllowed()) {
+                setProgressAnimated(progress);
+            } else {
+                setProgressInternal(progress);
+            }
+        }
+    }
+
+    /**
+     * Secondary (buffered) progress value for non-indeterminate mode
+     */
+    public float getSecondaryProgress() {
+        return mSecondaryProgress;
+    }
+
+    /**
+     * Secondary (buffered) progress value for non-indeterminate mode, it's drawn under
+     * the progress with {@linkplain #setSecondaryProgressStrokeColor(int) its own color}
+     * in the same pass, {@code 0} by default
+     */
+    public void setSecondaryProgress(final float progress) {
+        final FloatAnimation animation = mSecondaryProgressAnimation;
+        animation.cancel();
+        if (!mIndeterminate && isProgressAnimationAllowed()) {
+            animation.start(mSecondaryProgress, progress);
+            getAnimationClockInternal().addCallback(mSegmentFrameCallback);
+        } else {
+            mSecondaryProgress = progress;
+            invalidateSelf();
+        }
+    }
+
+    /**
+     * Secondary progress stroke color
+     */
+    @ColorInt
+    public int getSecondaryProgressStrokeColor() {
+        return mSecondaryProgressStrokeColor;
+    }
+
+    /**
+     * Secondary progress stroke color
+     */
+    public void setSecondaryProgressStrokeColor(@ColorInt final int color) {
+        mSecondaryProgressStrokeColor = color;
+        invalidateSelf();
+    }
+
+    /**
+     * Number of progress segments
+     */
+    public int getSegmentCount() {
+        return mSegmentCount;
+    }
+
+    /**
+     * Value of the progress segment at the specified index
+     */
+    public float getSegmentValue(final int index) {
+        if (index < 0 || index >= mSegmentCount) {
+            throw new IllegalArgumentException("Segment index is out of bounds");
+        }
+        final float[] endValues = mSegmentEndValues;
+        return endValues != null ? endValues[index] : 0f;
+    }
+
+    /**
+     * Color of the progress segment at the specified index
+     */
+    @ColorInt
+    public int getSegmentColor(final int index) {
+        if (index < 0 || index >= mSegmentCount) {
+            throw new IllegalArgumentException("Segment index is out of bounds");
+        }
+        final int[] colors = mSegmentColors;
+        return colors != null ? colors[index] : 0;
+    }
+
+    /**
+     * Progress segments for non-indeterminate mode, segments are drawn one after another
+     * from the start angle, each with its own color, in the same pass; segments that exceed
+     * the maximum are clipped. Progress value isn't drawn while there are segments.
+     * <p>
+     * Changes of segment values are animated the same way as progress changes,
+     * segment arrays are copied.
+     *
+     * @param values Segment values (in progress units), non-negative
+     * @param colors Segment colors, of the same length as values
+     */
+    public void setSegments(@NonNull final float[] values, @NonNull final int[] colors) {
+        //noinspection ConstantConditions
+        if (values == null || colors == null) {
+            throw new IllegalArgumentException("Segment values and colors can't be null");
+        }
+        final int count = values.length;
+        if (colors.length != count) {
+            throw new IllegalArgumentException(
+                    "Segment values and colors should be of the same length");
+        }
+        for (final float value : values) {
+            if (!(value >= 0f)) {
+                throw new IllegalArgumentException("Segment values can't be negative");
+            }
+        }
+        float[] segmentValues = mSegmentValues;
+        float[] startValues = mSegmentStartValues;
+        float[] endValues = mSegmentEndValues;
+        int[] segmentColors = mSegmentColors;
+        if (segmentValues == null || segmentValues.length < count) {
+            segmentValues = new float[count];
+            startValues = new float[count];
+            endValues = new float[count];
+            segmentColors = new int[count];
+            final int previousCount = mSegmentCount;
+            if (previousCount > 0) {
+                System.arraycopy(mSegmentValues, 0, segmentValues, 0, previousCount);
+            }
+            mSegmentValues = segmentValues;
+            mSegmentStartValues = startValues;
+            mSegmentEndValues = endValues;
+            mSegmentColors = segmentColors;
+        }
+        // New segments grow from zero
+        for (int i = mSegmentCount; i < count; i++) {
+            segmentValues[i] = 0f;
+        }
+        System.arraycopy(segmentValues, 0, startValues, 0, count);
+        System.arraycopy(values, 0, endValues, 0, count);
+        System.arraycopy(colors, 0, segmentColors, 0, count);
+        mSegmentCount = count;
+        final FloatAnimation animation = mSegmentAnimation;
+        animation.cancel();
+        if (!mIndeterminate && isProgressAnimationAllowed()) {
+            animation.start(0f, 1f);
+            getAnimationClockInternal().addCallback(mSegmentFrameCallback);
+        } else {
+            System.arraycopy(endValues, 0, segmentValues, 0, count);
+            invalidateSelf();
+        }
+    }
+
+    /**
+     * Remove all progress segments
+     */
+    public void clearSegments() {
+        mSegmentAnimation.cancel();
+        mSegmentCount = 0;
+        invalidateSelf();
+    }
+
+    /**
+     * Bind new progress state at once, for example, when a recycled list item is rebound
+     * <p>
+     * Running progress animations are cancelled, secondary progress and segments
+     * are cleared, state is applied without animation and the drawable is invalidated once;
+     * progress changes made after this call are not animated either until the next draw
+     * or frame, so the rest of the new state can be set with regular setters. Indeterminate animation
+     * keeps running if the drawable stays indeterminate.
+     */
+    public void bind(final boolean indeterminate, final float progress, final float maximum) {
+        bindInternal(indeterminate, progress, maximum, mForegroundStrokeColor);
+    }
+
+    /**
+     * Bind new progress state and foreground stroke color at once
+     *
+     * @see #bind(boolean, float, float)
+     */
+    public void bind(final boolean indeterminate, final float progress, final float maximum,
+            @ColorInt final int foregroundStrokeColor) {
+        bindInternal(indeterminate, progress, maximum, foregroundStrokeColor);
+    }
+
+    /**
+     * Reset progress state to defaults: non-indeterminate mode, zero progress,
+     * no secondary progress and no segments; maximum and styling are kept
+     *
+     * @see #bind(boolean, float, float)
+     */
+    public void reset() {
+        bindInternal(DEFAULT_INDETERMINATE, DEFAULT_PROGRESS, mMaximum, mForegroundStrokeColor);
+    }
+
+    /**
+     * Callback, that is called after maximum or indeterminate mode
+     * is changed by {@link Editor#apply()}
+     */
+    void setProgressRangeCallback(@Nullable final Runnable callback) {
+        mProgressRangeCallback = callback;
+    }
+
+    /**
+     * Apply resolved style attributes, values are assigned directly, so the drawable is
+     * invalidated and its animations are restarted only once
+     */
+    void applyStyle(@NonNull final StyleConfig style) {
+        endProgressAnimation();
+        cancelIndeterminateAnimations();
+        mMaximum = style.getMaximum();
+        mProgress = style.getProgress();
+        mProgressThreshold = style.getProgressThreshold();
+        mProgressThresholdReference = Float.NaN;
+        mSecondaryProgress = style.getSecondaryProgress();
+        mStartAngle = style.getStartAngle();
+        mIndeterminateMinimumAngle = style.getIndeterminateMinimumAngle();
+        final long progressAnimationDuration = style.getProgressAnimationDuration();
+        mProgressAnimation.setDuration(progressAnimationDuration);
+        mProgressSpring.setSettleDuration(progressAnimationDuration);
+        mSecondaryProgressAnimation.setDuration(progressAnimationDuration);
+        mSegmentAnimation.setDuration(progressAnimationDuration);
+        mIndeterminateRotationAnimator
+                .setDuration(style.getIndeterminateRotationAnimationDuration());
+        mIndeterminateSweepAnimator.setDuration(style.getIndeterminateSweepAnimationDuration());
+        mForegroundStrokeColor = style.getForegroundStrokeColor();
+        mBackgroundStrokeColor = style.getBackgroundStrokeColor();
+        mSecondaryProgressStrokeColor = style.getSecondaryProgressStrokeColor();
+        mForegroundStrokePaint.setStrokeWidth(style.getForegroundStrokeWidth());
+        mForegroundStrokePaint.setStrokeCap(style.getForegroundStrokeCap());
+        mBackgroundStrokePaint.setStrokeWidth(style.getBackgroundStrokeWidth());
+        mAnimateProgress = style.isAnimateProgress();
+        mProgressSpringAnimation = style.isProgressSpringAnimation();
+        mDrawBackgroundStroke = style.isDrawBackgroundStroke();
+        mPrecomputeInterpolators = style.isPrecomputeInterpolators();
+        mIndeterminateSharedClock = style.isIndeterminateSharedClock();
+        mIndeterminateRenderThread = style.isIndeterminateRenderThread();
+        mIndeterminateTargetFrameRate = style.getIndeterminateTargetFrameRate();
+        mIndeterminatePowerSaving = style.isIndeterminatePowerSaving();
+        mIndeterminate = style.isIndeterminate();
+        if (mIndeterminatePowerSaving) {
+            PowerSaveMonitor.getInstance(mContext);
+        }
+        final BackgroundStrokeCache backgroundStrokeCache = mBackgroundStrokeCache;
+        if (style.isCacheBackgroundStroke()) {
+            if (backgroundStrokeCache == null) {
+                mBackgroundStrokeCache = new BackgroundStrokeCache();
+            }
+        } else if (backgroundStrokeCache != null) {
+            backgroundStrokeCache.release();
+            mBackgroundStrokeCache = null;
+        }
+        invalidateProgressAnimationInterpolator();
+        invalidateIndeterminateAnimationInterpolators();
+        invalidateForegroundStrokeCapAngle();
+        invalidateDrawRect();
+        invalidateStrokeColors();
+        invalidateSelf();
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Start a transaction of property changes, that are applied together
+     * by {@link Editor#apply()}
+     * <p>
+     * Each setter invalidates the drawable by itself, and some of them restart indeterminate
+     * animation, so transaction is cheaper when several properties are changed at once
+     */
+    @NonNull
+    public Editor edit() {
+        return new Editor();
+    }
+
+    /**
+     * Maximum progress for non-indeterminate mode
+     */
+    public float getMaximum() {
+        return mMaximum;
+    }
+
+    /**
+     * Maximum progress for non-indeterminate mode
+     */
+    public void setMaximum(final float maximum) {
+        mMaximum = maximum;
+        mProgressThresholdReference = Float.NaN;
+        invalidateSelf();
+    }
+
+    /**
+     * Set current progress and maximum for non-indeterminate mode from long values
+     * <p>
+     * Progress fraction is calculated with double precision, so progress keeps the same ratio
+     * to maximum for large values, such as transferred byte counts of multi-gigabyte files;
+     * progress and maximum are still stored as floats, so {@link #getProgress()} and
+     * {@link #getMaximum()} are only accurate to float precision, and increments smaller than
+     * it (for example, under 512 bytes with a 4 GiB maximum) are lost
+     */
+    public void setProgress(final long progress, final long maximum) {
+        final float floatMaximum = (float) maximum;
+        if (mMaximum != floatMaximum) {
+            setMaximum(floatMaximum);
+        }
+        if (maximum != 0L) {
+            setProgress((float) ((double) progress / maximum * floatMaximum));
+        } else {
+            setProgress((float) progress);
+        }
+    }
+
+    /**
+     * Minimum visible progress change (in pixels of arc length)
+     */
+    @FloatRange(from = 0f)
+    public float getProgressThreshold() {
+        return mProgressThreshold;
+    }
+
+    /**
+     * Minimum visible progress change (in pixels of arc length), {@code 0} by default
+     * <p>
+     * Progress changes, that move the arc end by less than the threshold since the last
+     * applied change, are stored without animation and invalidation, they're drawn with
+     * the next invalidation; sub-pixel thresholds (for example, {@code 0.5}) drop redundant
+     * frames of frequently updated progress without visible difference
+     */
+    public void setProgressThreshold(@FloatRange(from = 0f) final float threshold) {
+        checkProgressThreshold(threshold);
+        mProgressThreshold = threshold;
+        mProgressThresholdReference = Float.NaN;
+    }
+
+    /**
+     * Start angle for non-indeterminate mode, between -360 and 360 degrees
+     */
+    @FloatRange(from = -360f, to = 360f)
+    public float getStartAngle() {
+        return mStartAngle;
+    }
+
+    /**
+     * Start angle for non-indeterminate mode, between -360 and 360 degrees
+     */
+    public void setStartAngle(@FloatRange(from = -360f, to = 360f) final float angle) {
+        checkStartAngle(angle);
+        mStartAngle = angle;
+        if (mBackgroundStrokeShader != null) {
+            invalidateBackgroundStrokeShader();
+        }
+        invalidateSelf();
+    }
+
+    /**
+     * Whether to animate progress for non-indeterminate mode
+     */
+    public boolean isAnimateProgress() {
+        return mAnimateProgress;
+    }
+
+    /**
+     * Whether to animate progress for non-indeterminate mode
+     */
+    public void setAnimateProgress(final boolean animate) {
+        mAnimateProgress = animate;
+    }
+
+    /**
+     * Whether to animate progress with a spring
+     */
+    public boolean isProgressSpringAnimation() {
+        return mProgressSpringAnimation;
+    }
+
+    /**
+     * Whether to animate progress with a critically damped spring, disabled by default
+     * <p>
+     * Spring is retargeted in place on each progress change, keeping its current velocity,
+     * which is smoother than restarting interpolated animation when progress is updated
+     * frequently; progress animation duration is used as approximate spring settle time,
+     * interpolator is ignored
+     */
+    public void setProgressSpringAnimation(final boolean spring) {
+        if (isVisible()) {
+            endProgressAnimation();
+        }
+        mProgressSpringAnimation = spring;
+    }
+
+    /**
+     * Progress animation duration for non-indeterminate mode (in milliseconds)
+     */
+    @IntRange(from = 0)
+    public long getProgressAnimationDuration() {
+        return mProgressAnimation.getDuration();
+    }
+
+    /**
+     * Progress animation duration for non-indeterminate mode (in milliseconds)
+     */
+    public void setProgressAnimationDuration(@IntRange(from = 0) final long duration) {
+        checkAnimationDuration(duration);
+        if (isVisible()) {
+            endProgressAnimation();
+        }
+        mProgressAnimation.setDuration(duration);
+        mProgressSpring.setSettleDuration(duration);
+        mSecondaryProgressAnimation.setDuration(duration);
+        mSegmentAnimation.setDuration(duration);
+        invalidateProgressAnimationInterpolator();
+    }
+
+    /**
+     * Progress animation interpolator for non-indeterminate mode
+     */
+    @NonNull
+    public TimeInterpolator getProgressAnimationInterpolator() {
+        return mProgressAnimationInterpolator;
+    }
+
+    /**
+     * Progress animation interpolator for non-indeterminate mode
+     */
+    public void setProgressAnimationInterpolator(@NonNull final TimeInterpolator interpolator) {
+        checkInterpolator(interpolator);
+        if (isVisible()) {
+            endProgressAnimation();
+        }
+        mProgressAnimationInterpolator = interpolator;
+        invalidateProgressAnimationInterpolator();
+    }
+
+    /**
+     * Minimum angle for indeterminate mode, between 0 and 180 degrees
+     */
+    @FloatRange(from = 0f, to = 180f)
+    public float getIndeterminateMinimumAngle() {
+        return mIndeterminateMinimumAngle;
+    }
+
+    /**
+     * Minimum angle for indeterminate mode, between 0 and 180 degrees
+     */
+    public void setIndeterminateMinimumAngle(@FloatRange(from = 0f, to = 180f) final float angle) {
+        checkIndeterminateMinimumAngle(angle);
+        cancelIndeterminateAnimations();
+        mIndeterminateMinimumAngle = angle;
+        invalidateSelf();
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Rotation animation duration for indeterminate mode (in milliseconds)
+     */
+    @IntRange(from = 0)
+    public long getIndeterminateRotationAnimationDuration() {
+        return mIndeterminateRotationAnimator.getDuration();
+    }
+
+    /**
+     * Rotation animation duration for indeterminate mode (in milliseconds)
+     */
+    public void setIndeterminateRotationAnimationDuration(@IntRange(from = 0) final long duration) {
+        checkAnimationDuration(duration);
+        cancelIndeterminateAnimations();
+        mIndeterminateRotationAnimator.setDuration(duration);
+        invalidateIndeterminateAnimationInterpolators();
+        invalidateSelf();
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Rotation animation interpolator for indeterminate mode
+     */
+    @NonNull
+    public TimeInterpolator getIndeterminateRotationAnimationInterpolator() {
+        return mIndeterminateRotationAnimationInterpolator;
+    }
+
+    /**
+     * Rotation animation interpolator for indeterminate mode
+     */
+    public void setIndeterminateRotationAnimationInterpolator(
+            @NonNull final TimeInterpolator interpolator) {
+        checkInterpolator(interpolator);
+        cancelIndeterminateAnimations();
+        mIndeterminateRotationAnimationInterpolator = interpolator;
+        invalidateIndeterminateAnimationInterpolators();
+        invalidateSelf();
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Sweep animation duration for indeterminate mode (in milliseconds)
+     */
+    @IntRange(from = 0)
+    public long getIndeterminateSweepAnimationDuration() {
+        return mIndeterminateSweepAnimator.getDuration();
+    }
+
+    /**
+     * Sweep animation duration for indeterminate mode (in milliseconds)
+     */
+    public void setIndeterminateSweepAnimationDuration(@IntRange(from = 0) final long duration) {
+        checkAnimationDuration(duration);
+        cancelIndeterminateAnimations();
+        mIndeterminateSweepAnimator.setDuration(duration);
+        invalidateIndeterminateAnimationInterpolators();
+        invalidateSelf();
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Sweep animation interpolator for indeterminate mode
+     */
+    @NonNull
+    public TimeInterpolator getIndeterminateSweepAnimationInterpolator() {
+        return mIndeterminateSweepAnimationInterpolator;
+    }
+
+    /**
+     * Sweep animation interpolator for indeterminate mode
+     */
+    public void setIndeterminateSweepAnimationInterpolator(
+            @NonNull final TimeInterpolator interpolator) {
+        checkInterpolator(interpolator);
+        cancelIndeterminateAnimations();
+        mIndeterminateSweepAnimationInterpolator = interpolator;
+        invalidateIndeterminateAnimationInterpolators();
+        invalidateSelf();
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Whether to drive indeterminate animation by the process-wide shared frame clock
+     * instead of per-drawable animators
+     */
+    public boolean isIndeterminateSharedClock() {
+        return mIndeterminateSharedClock;
+    }
+
+    /**
+     * Whether to drive indeterminate animation by the process-wide shared frame clock
+     * instead of per-drawable animators, disabled by default
+     * <p>
+     * Shared clock computes state of all visible indeterminate progress drawables
+     * from a single frame callback, which is cheaper when there are many of them on the screen
+     */
+    public void setIndeterminateSharedClock(final boolean sharedClock) {
+        cancelIndeterminateAnimations();
+        mIndeterminateSharedClock = sharedClock;
+        invalidateSelf();
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Whether to run indeterminate animation on the RenderThread when possible
+     */
+    public boolean isIndeterminateRenderThread() {
+        return mIndeterminateRenderThread;
+    }
+
+    /**
+     * Whether to run indeterminate animation on the RenderThread when possible,
+     * disabled by default
+     * <p>
+     * RenderThread animation keeps running while the main thread is busy, it's available on
+     * API 25+ with default indeterminate animation durations, interpolators, minimum angle
+     * and {@link Paint.Cap#BUTT} foreground stroke cap, when foreground stroke width is
+     * proportional to the ring size as for the default 48dp progress bar with 3dp stroke.
+     * Regular indeterminate animation is used when RenderThread animation isn't available
+     */
+    public void setIndeterminateRenderThread(final boolean renderThread) {
+        cancelIndeterminateAnimations();
+        mIndeterminateRenderThread = renderThread;
+        invalidateSelf();
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Target frame rate of indeterminate animation (in frames per second),
+     * {@code 0} if animation runs at the display refresh rate
+     */
+    @FloatRange(from = 0f)
+    public float getIndeterminateTargetFrameRate() {
+        return mIndeterminateTargetFrameRate;
+    }
+
+    /**
+     * Target frame rate of indeterminate animation (in frames per second), {@code 0} (default)
+     * to run at the display refresh rate
+     * <p>
+     * Animation frames are scheduled at the target frame rate instead of each display frame;
+     * when a custom {@link AnimationClock} is set, its state still advances on each clock
+     * frame, but redraws between target frames are skipped. RenderThread animation
+     * isn't used when target frame rate is set
+     */
+    public void setIndeterminateTargetFrameRate(@FloatRange(from = 0f) final float frameRate) {
+        checkTargetFrameRate(frameRate);
+        cancelIndeterminateAnimations();
+        mIndeterminateTargetFrameRate = frameRate;
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Whether to save power on indeterminate animation
+     */
+    public boolean isIndeterminatePowerSaving() {
+        return mIndeterminatePowerSaving;
+    }
+
+    /**
+     * Whether to save power on indeterminate animation, disabled by default
+     * <p>
+     * Indeterminate animation is limited to 30 frames per second while battery saver mode
+     * is enabled, and it's not redrawn at all while animators are disabled
+     * in the system settings
+     */
+    public void setIndeterminatePowerSaving(final boolean powerSaving) {
+        cancelIndeterminateAnimations();
+        mIndeterminatePowerSaving = powerSaving;
+        if (powerSaving) {
+            // Start listening to battery saver mode changes
+            PowerSaveMonitor.getInstance(mContext);
+        }
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Animation clock, or {@code null} if the default one is used
+     */
+    @Nullable
+    public AnimationClock getAnimationClock() {
+        return mAnimationClock;
+    }
+
+    /**
+     * Animation clock, that drives progress and indeterminate animations,
+     * or {@code null} to use the default (display frame) clock
+     * <p>
+     * Indeterminate animation driven by a specified clock is phase-locked to the clock
+     * time base, so all progress bars that share a clock spin in sync, regardless of when
+     * they were started. Specified clock is used instead of the shared clock and the
+     * RenderThread animation.
+     *
+     * @see ManualAnimationClock
+     */
+    public void setAnimationClock(@Nullable final AnimationClock clock) {
+        if (mAnimationClock == clock) {
+            return;
+        }
+        // Callbacks should be removed from the previous clock
+        endProgressAnimation();
+        cancelIndeterminateAnimations();
+        mAnimationClock = clock;
+        mIndeterminatePausedElapsedTime = -1L;
+        invalidateSelf();
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Foreground stroke cap
+     */
+    @NonNull
+    public Paint.Cap getForegroundStrokeCap() {
+        return mForegroundStrokePaint.getStrokeCap();
+    }
+
+    /**
+     * Foreground stroke cap
+     */
+    public void setForegroundStrokeCap(@NonNull final Paint.Cap cap) {
+        checkStrokeCap(cap);
+        mForegroundStrokePaint.setStrokeCap(cap);
+        invalidateForegroundStrokeCapAngle();
+        invalidateSelf();
+        if (mIndeterminateRenderThread) {
+            // Stroke cap affects RenderThread animation availability
+            cancelIndeterminateAnimations();
+            restartIndeterminateAnimationsIfNeeded();
+        }
+    }
+
+    /**
+     * Foreground stroke color
+     */
+    @ColorInt
+    public int getForegroundStrokeColor() {
+        return mForegroundStrokeColor;
+    }
+
+    /**
+     * Foreground stroke color
+     */
+    public void setForegroundStrokeColor(@ColorInt final int color) {
+        mForegroundStrokeColor = color;
+        invalidateStrokeColors();
+        invalidateSelf();
+    }
+
+    /**
+     * Foreground stroke width (in pixels)
+     */
+    @FloatRange(from = 0f, to = Float.MAX_VALUE)
+    public float getForegroundStrokeWidth() {
+        return mForegroundStrokePaint.getStrokeWidth();
+    }
+
+    /**
+     * Foreground stroke width (in pixels)
+     */
+    public void setForegroundStrokeWidth(
+            @FloatRange(from = 0f, to = Float.MAX_VALUE) final float width) {
+        checkStrokeWidth(width);
+        mForegroundStrokePaint.setStrokeWidth(width);
+        invalidateDrawRect();
+        invalidateSelf();
+    }
+
+    /**
+     * Background stroke color
+     */
+    @ColorInt
+    public int getBackgroundStrokeColor() {
+        return mBackgroundStrokeColor;
+    }
+
+    /**
+     * Background stroke color
+     */
+    public void setBackgroundStrokeColor(@ColorInt final int color) {
+        mBackgroundStrokeColor = color;
+        invalidateStrokeColors();
+        invalidateSelf();
+    }
+
+    /**
+     * Foreground stroke gradient colors, or {@code null} if gradient isn't used
+     */
+    @Nullable
+    public int[] getForegroundStrokeGradientColors() {
+        final int[] colors = mForegroundStrokeGradientColors;
+        return colors != null ? colors.clone() : null;
+    }
+
+    /**
+     * Foreground stroke gradient colors, evenly distributed around the ring
+     * and rotated together with the progress arc; foreground stroke color is used
+     * if {@code null} (by default). Gradient isn't used for progress segments and
+     * secondary progress, and it disables RenderThread indeterminate animation.
+     *
+     * @param colors At least two colors, or {@code null}
+     */
+    public void setForegroundStrokeGradientColors(@Nullable final int[] colors) {
+        checkGradientColors(colors);
+        cancelIndeterminateAnimations();
+        mForegroundStrokeGradientColors = colors != null ? colors.clone() : null;
+        invalidateForegroundStrokeShader();
+        invalidateStrokeColors();
+        invalidateSelf();
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Background stroke gradient colors, or {@code null} if gradient isn't used
+     */
+    @Nullable
+    public int[] getBackgroundStrokeGradientColors() {
+        final int[] colors = mBackgroundStrokeGradientColors;
+        return colors != null ? colors.clone() : null;
+    }
+
+    /**
+     * Background stroke gradient colors, evenly distributed around the ring from the start
+     * angle; background stroke color is used if {@code null} (by default)
+     *
+     * @param colors At least two colors, or {@code null}
+     */
+    public void setBackgroundStrokeGradientColors(@Nullable final int[] colors) {
+        checkGradientColors(colors);
+        mBackgroundStrokeGradientColors = colors != null ? colors.clone() : null;
+        invalidateBackgroundStrokeShader();
+        invalidateStrokeColors();
+        invalidateBackgroundStrokeCache();
+        invalidateSelf();
+    }
+
+    /**
+     * Background stroke width (in pixels)
+     */
+    @FloatRange(from = 0f, to = Float.MAX_VALUE)
+    public float getBackgroundStrokeWidth() {
+        return mBackgroundStrokePaint.getStrokeWidth();
+    }
+
+    /**
+     * Background stroke width (in pixels)
+     */
+    public void setBackgroundStrokeWidth(
+            @FloatRange(from = 0f, to = Float.MAX_VALUE) final float width) {
+        checkStrokeWidth(width);
+        mBackgroundStrokePaint.setStrokeWidth(width);
+        invalidateDrawRect();
+        invalidateSelf();
+    }
+
+    /**
+     * Whether to draw background stroke
+     */
+    public boolean isDrawBackgroundStroke() {
+        return mDrawBackgroundStroke;
+    }
+
+    /**
+     * Whether to draw background stroke
+     */
+    public void setDrawBackgroundStroke(final boolean draw) {
+        mDrawBackgroundStroke = draw;
+        invalidateDrawRect();
+        invalidateSelf();
+    }
+
+    /**
+     * Whether to cache background stroke
+     */
+    public boolean isCacheBackgroundStroke() {
+        return mBackgroundStrokeCache != null;
+    }
+
+    /**
+     * Whether to cache background stroke, disabled by default
+     * <p>
+     * Cached background stroke is rebuilt only when its color, width or size changes,
+     * each frame only draws the cached ring; it's recorded into a display list on API 29+
+     * for hardware accelerated canvases, otherwise it's rasterized into a bitmap
+     * of the drawable size, which costs memory
+     */
+    public void setCacheBackgroundStroke(final boolean cache) {
+        final BackgroundStrokeCache backgroundStrokeCache = mBackgroundStrokeCache;
+        if (cache) {
+            if (backgroundStrokeCache == null) {
+                mBackgroundStrokeCache = new BackgroundStrokeCache();
+            }
+        } else if (backgroundStrokeCache != null) {
+            backgroundStrokeCache.release();
+            mBackgroundStrokeCache = null;
+        }
+        invalidateSelf();
+    }
+
+    /**
+     * Whether to precompute animation interpolators
+     */
+    public boolean isPrecomputeInterpolators() {
+        return mPrecomputeInterpolators;
+    }
+
+    /**
+     * Whether to precompute animation interpolators, disabled by default
+     * <p>
+     * Progress and indeterminate animation interpolators are sampled into lookup tables
+     * when they're set, so each frame evaluates them with a single array lookup;
+     * tables are shared across all progress bars that use the same interpolator instance
+     * and animation duration. Interpolators should be pure functions of their input.
+     */
+    public void setPrecomputeInterpolators(final boolean precompute) {
+        if (mPrecomputeInterpolators == precompute) {
+            return;
+        }
+        if (isVisible()) {
+            endProgressAnimation();
+        }
+        cancelIndeterminateAnimations();
+        mPrecomputeInterpolators = precompute;
+        invalidateProgressAnimationInterpolator();
+        invalidateIndeterminateAnimationInterpolators();
+        restartIndeterminateAnimationsIfNeeded();
+    }
+
+    /**
+     * Start indeterminate animation, it runs while the drawable is visible and
+     * in indeterminate mode
+     */
+    @Override
+    public void start() {
+        mStarted = true;
+        if (isVisible() && mIndeterminate) {
+            startIndeterminateAnimations();
+        }
+    }
+
+    /**
+     * Stop indeterminate animation
+     */
+    @Override
+    public void stop() {
+        mStarted = false;
+        cancelIndeterminateAnimations();
+    }
+
+    /**
+     * Whether indeterminate animation is running
+     */
+    @Override
+    public boolean isRunning() {
+        return isRenderThreadIndeterminateAnimationRunning() || mIndeterminateClockRunning ||
+                mIndeterminateRotationAnimator.isRunning();
+    }
+
+    /**
+     * Whether any progress or indeterminate animation is running
+     */
+    boolean isAnimating() {
+        return isRunning() || mProgressAnimation.isRunning() || mProgressSpring.isRunning() ||
+                mSecondaryProgressAnimation.isRunning() || mSegmentAnimation.isRunning();
+    }
+
+    @Override
+    public boolean setVisible(final boolean visible, final boolean restart) {
+        final boolean changed = super.setVisible(visible, restart);
+        if (visible) {
+            // Bound state of a detached progress bar, that was never drawn, expires on attach
+            clearBound();
+        }
+        if (mIndeterminate) {
+            if (visible && mStarted) {
+                startIndeterminateAnimations();
+            } else {
+                cancelIndeterminateAnimations();
+            }
+        } else if (!visible) {
+            endProgressAnimation();
+        }
+        return changed;
+    }
+
+    /**
+     * Whether to collect rendering metrics
+     */
+    public boolean isRenderMetricsEnabled() {
+        return mRenderMetrics != null;
+    }
+
+    /**
+     * Whether to collect rendering metrics, disabled by default
+     * <p>
+     * When enabled, draw and animation frames are also wrapped into trace sections,
+     * so system traces attribute their cost to the progress bar;
+     * metrics collection has no overhead when disabled
+     *
+     * @see #getRenderMetrics()
+     */
+    public void setRenderMetricsEnabled(final boolean enabled) {
+        if (enabled) {
+            if (mRenderMetrics == null) {
+                mRenderMetrics = new RenderMetricsCollector();
+            }
+        } else {
+            mRenderMetrics = null;
+        }
+    }
+
+    /**
+     * Rendering metrics snapshot, collected since metrics were enabled or reset,
+     * or {@code null} if metrics are disabled
+     */
+    @Nullable
+    public RenderMetrics getRenderMetrics() {
+        final RenderMetricsCollector metrics = mRenderMetrics;
+        return metrics != null ? metrics.snapshot() : null;
+    }
+
+    /**
+     * Reset collected rendering metrics
+     */
+    public void resetRenderMetrics() {
+        final RenderMetricsCollector metrics = mRenderMetrics;
+        if (metrics != null) {
+            metrics.reset();
+        }
+    }
+
+    @Override
+    public void invalidateSelf() {
+        final RenderMetricsCollector metrics = mRenderMetrics;
+        if (metrics != null) {
+            metrics.onInvalidate();
+        }
+        super.invalidateSelf();
+    }
+
+    @Override
+    public void draw(@NonNull final Canvas canvas) {
+        final RenderMetricsCollector metrics = mRenderMetrics;
+        if (metrics != null) {
+            final long startTime = metrics.beginDraw();
+            drawInternal(canvas);
+            metrics.endDraw(startTime);
+        } else {
+            drawInternal(canvas);
+        }
+    }
+
+    private void drawInternal(@NonNull final Canvas canvas) {
+        clearBound();
+        if (mDrawBackgroundStroke) {
+            final BackgroundStrokeCache backgroundStrokeCache = mBackgroundStrokeCache;
+            if (backgroundStrokeCache != null) {
+                backgroundStrokeCache
+                        .draw(canvas, getBounds(), mDrawRect, mBackgroundStrokePaint);
+            } else {
+                canvas.drawOval(mDrawRect, mBackgroundStrokePaint);
+            }
+        }
+        if (mIndeterminate && isRenderThreadIndeterminateAnimationRunning()) {
+            mRenderThreadIndeterminateDrawable.draw(canvas);
+            return;
+        }
+        final ArcGeometry geometry = mGeometry;
+        if (mIndeterminate) {
+            geometry.computeIndeterminateArc(mIndeterminateStartAngle, mIndeterminateSweepAngle,
+                    mIndeterminateOffsetAngle, mIndeterminateMinimumAngle,
+                    mIndeterminateGrowMode);
+        } else {
+            if (mSecondaryProgress != 0f) {
+                geometry.computeDeterminateArc(mStartAngle, mSecondaryProgress, mMaximum);
+                drawArc(canvas, geometry, mSecondaryProgressStrokeColor);
+            }
+            if (mSegmentCount > 0) {
+                drawSegments(canvas, geometry);
+                return;
+            }
+            geometry.computeDeterminateArc(mStartAngle, mProgress, mMaximum);
+        }
+        final RectF rect = mDrawRect;
+        final float arcStartAngle = geometry.getArcStartAngle();
+        final float arcSweepAngle = geometry.getArcSweepAngle();
+        if (mForegroundStrokeShader != null) {
+            // Gradient starts at the arc start, including its stroke cap; canvas is rotated
+            // instead of the shader, since a new local matrix recreates the native shader
+            final float capAngle = geometry.getCapAngle();
+            final float startAngle = arcSweepAngle < 0f ? arcStartAngle + capAngle :
+                    arcStartAngle - capAngle;
+            final int saveCount = canvas.save();
+            canvas.rotate(startAngle, rect.centerX(), rect.centerY());
+            canvas.drawArc(rect, arcStartAngle - startAngle, arcSweepAngle, false,
+                    mForegroundStrokePaint);
+            canvas.restoreToCount(saveCount);
+        } else {
+            canvas.drawArc(rect, arcStartAngle, arcSweepAngle, false, mForegroundStrokePaint);
+        }
+    }
+
+    private void drawSegments(@NonNull final Canvas canvas, @NonNull final ArcGeometry geometry) {
+        final float[] values = mSegmentValues;
+        final int[] colors = mSegmentColors;
+        final float startAngle = mStartAngle;
+        final float maximum = mMaximum;
+        float offset = 0f;
+        for (int i = 0, count = mSegmentCount; i < count; i++) {
+            final float value = values[i];
+            if (geometry.computeSegmentArc(startAngle, offset, value, maximum)) {
+                drawArc(canvas, geometry, colors[i]);
+            }
+            offset += value;
+        }
+    }
+
+    /**
+     * Draw computed arc with foreground stroke and the specified color
+     */
+    private void drawArc(@NonNull final Canvas canvas, @NonNull final ArcGeometry geometry,
+            @ColorInt final int color) {
+        final Paint paint = mForegroundStrokePaint;
+        final int foregroundColor = paint.getColor();
+        final Shader shader = mForegroundStrokeShader;
+        if (shader != null) {
+            paint.setShader(null);
+        }
+        paint.setColor(modulateAlpha(color, mAlpha));
+        canvas.drawArc(mDrawRect, geometry.getArcStartAngle(), geometry.getArcSweepAngle(), false,
+                paint);
+        paint.setColor(foregroundColor);
+        if (shader != null) {
+            paint.setShader(shader);
+        }
+    }
+
+    @Override
+    public void setAlpha(@IntRange(from = 0, to = 255) final int alpha) {
+        if (mAlpha != alpha) {
+            mAlpha = alpha;
+            invalidateStrokeColors();
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public int getAlpha() {
+        return mAlpha;
+    }
+
+    @Override
+    public void setColorFilter(@Nullable final ColorFilter colorFilter) {
+        mForegroundStrokePaint.setColorFilter(colorFilter);
+        mBackgroundStrokePaint.setColorFilter(colorFilter);
+        invalidateBackgroundStrokeCache();
+        invalidateSelf();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return mDefaultSize;
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return mDefaultSize;
+    }
+
+    @Override
+    protected void onBoundsChange(@NonNull final Rect bounds) {
+        invalidateDrawRect();
+    }
+
+    private void invalidateDrawRect() {
+        final Rect bounds = getBounds();
+        final int width = bounds.width();
+        final int height = bounds.height();
+        if (width > 0 && height > 0) {
+            final float thickness;
+            if (mDrawBackgroundStroke) {
+                thickness = Math.max(mForegroundStrokePaint.getStrokeWidth(),
+                        mBackgroundStrokePaint.getStrokeWidth());
+            } else {
+                thickness = mForegroundStrokePaint.getStrokeWidth();
+            }
+            final ArcGeometry geometry = mGeometry;
+            geometry.setBounds(bounds.left, bounds.top, width, height, thickness);
+            mDrawRect.set(geometry.getLeft(), geometry.getTop(), geometry.getRight(),
+                    geometry.getBottom());
+            invalidateForegroundStrokeCapAngle();
+            invalidateForegroundStrokeShader();
+            invalidateBackgroundStrokeShader();
+            invalidateRenderThreadDrawableBounds();
+            invalidateBackgroundStrokeCache();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N_MR1 && mIndeterminate &&
+                    mStarted && isVisible() && isRenderThreadIndeterminateAnimationRunning() !=
+                            isRenderThreadIndeterminateAnimationAvailable()) {
+                // Stroke width to ring size ratio affects RenderThread animation availability
+                cancelIndeterminateAnimations();
+                restartIndeterminateAnimationsIfNeeded();
+            }
+        }
+    }
+
+    private void invalidateRenderThreadDrawableBounds() {
+        final Drawable drawable = mRenderThreadIndeterminateDrawable;
+        if (drawable == null) {
+            return;
+        }
+        // Fit drawable ring into the draw rect
+        final RectF rect = mDrawRect;
+        final float halfSize = rect.width() / 2f * RENDER_THREAD_DRAWABLE_VIEWPORT_SIZE / 2f /
+                RENDER_THREAD_DRAWABLE_RADIUS;
+        final float centerX = rect.centerX();
+        final float centerY = rect.centerY();
+        drawable.setBounds(Math.round(centerX - halfSize), Math.round(centerY - halfSize),
+                Math.round(centerX + halfSize), Math.round(centerY + halfSize));
+    }
+
+    private void invalidateForegroundStrokeCapAngle() {
+        final Paint.Cap strokeCap = mForegroundStrokePaint.getStrokeCap();
+        mGeometry.setCap(strokeCap == Paint.Cap.ROUND || strokeCap == Paint.Cap.SQUARE,
+                mForegroundStrokePaint.getStrokeWidth());
+    }
+
+    private void invalidateProgressAnimationInterpolator() {
+        final FloatAnimation animation = mProgressAnimation;
+        final TimeInterpolator interpolator =
+                getAnimationInterpolator(mProgressAnimationInterpolator,
+                        animation.getDuration());
+        animation.setInterpolator(interpolator);
+        mSecondaryProgressAnimation.setInterpolator(interpolator);
+        mSegmentAnimation.setInterpolator(interpolator);
+    }
+
+    private void invalidateIndeterminateAnimationInterpolators() {
+        final ValueAnimator rotationAnimator = mIndeterminateRotationAnimator;
+        rotationAnimator.setInterpolator(
+                getAnimationInterpolator(mIndeterminateRotationAnimationInterpolator,
+                        rotationAnimator.getDuration()));
+        final ValueAnimator sweepAnimator = mIndeterminateSweepAnimator;
+        sweepAnimator.setInterpolator(
+                getAnimationInterpolator(mIndeterminateSweepAnimationInterpolator,
+                        sweepAnimator.getDuration()));
+    }
+
+    @NonNull
+    private TimeInterpolator getAnimationInterpolator(
+            @NonNull final TimeInterpolator interpolator, final long duration) {
+        // Linear interpolator is cheaper than a table lookup
+        if (mPrecomputeInterpolators && !(interpolator instanceof LinearInterpolator)) {
+            return InterpolatorTable.obtain(interpolator, duration);
+        } else {
+            return interpolator;
+        }
+    }
+
+    private void invalidateForegroundStrokeShader() {
+        // Local matrix is left as is, foreground gradient is rotated with the canvas while drawing
+        final Shader shader = createStrokeShader(mForegroundStrokeGradientColors);
+        mForegroundStrokeShader = shader;
+        mForegroundStrokePaint.setShader(shader);
+    }
+
+    private void invalidateBackgroundStrokeShader() {
+        final Shader shader = createStrokeShader(mBackgroundStrokeGradientColors);
+        if (shader != null) {
+            final RectF rect = mDrawRect;
+            final Matrix matrix = mStrokeShaderMatrix;
+            matrix.setRotate(mStartAngle, rect.centerX(), rect.centerY());
+            shader.setLocalMatrix(matrix);
+        }
+        mBackgroundStrokeShader = shader;
+        mBackgroundStrokePaint.setShader(shader);
+        invalidateBackgroundStrokeCache();
+    }
+
+    @Nullable
+    private Shader createStrokeShader(@Nullable final int[] colors) {
+        if (colors == null) {
+            return null;
+        }
+        final RectF rect = mDrawRect;
+        // Closing color makes the gradient seamless at the start angle
+        final int count = colors.length;
+        final int[] shaderColors = new int[count + 1];
+        System.arraycopy(colors, 0, shaderColors, 0, count);
+        shaderColors[count] = colors[0];
+        return new SweepGradient(rect.centerX(), rect.centerY(), shaderColors, null);
+    }
+
+    static void checkMaximum(final float maximum) {
+        if (Float.isNaN(maximum) || Float.isInfinite(maximum)) {
+            throw new IllegalArgumentException("Maximum should be a finite number");
+        }
+    }
+
+    static void checkStartAngle(final float angle) {
+        if (angle < -360f || angle > 360f) {
+            throw new IllegalArgumentException(
+                    "Start angle value should be between -360 and 360 degrees (inclusive)");
+        }
+    }
+
+    static void checkIndeterminateMinimumAngle(final float angle) {
+        if (angle < 0f || angle > 180f) {
+            throw new IllegalArgumentException(
+                    "Indeterminate minimum angle value should be between 0 and 180 degrees (inclusive)");
+        }
+    }
+
+    static void checkAnimationDuration(final long duration) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Animation duration can't be negative");
+        }
+    }
+
+    static void checkInterpolator(@Nullable final TimeInterpolator interpolator) {
+        if (interpolator == null) {
+            throw new IllegalArgumentException("Interpolator can't be null");
+        }
+    }
+
+    static void checkProgressThreshold(final float threshold) {
+        if (!(threshold >= 0f)) {
+            throw new IllegalArgumentException("Progress threshold can't be negative");
+        }
+    }
+
+    static void checkStrokeCap(@Nullable final Paint.Cap cap) {
+        if (cap == null) {
+            throw new IllegalArgumentException("Cap can't be null");
+        }
+    }
+
+    static void checkStrokeWidth(final float width) {
+        if (width < 0f) {
+            throw new IllegalArgumentException("Width can't be negative");
+        }
+    }
+
+    static void checkTargetFrameRate(final float frameRate) {
+        if (!(frameRate >= 0f)) {
+            throw new IllegalArgumentException("Target frame rate can't be negative");
+        }
+    }
+
+    private static void checkGradientColors(@Nullable final int[] colors) {
+        if (colors != null && colors.length < 2) {
+            throw new IllegalArgumentException("Gradient should have at least two colors");
+        }
+    }
+
+    private void invalidateBackgroundStrokeCache() {
+        final BackgroundStrokeCache backgroundStrokeCache = mBackgroundStrokeCache;
+        if (backgroundStrokeCache != null) {
+            backgroundStrokeCache.invalidate();
+        }
+    }
+
+    private void invalidateStrokeColors() {
+        // Gradient colors are modulated by paint alpha only
+        final int foregroundColor = modulateAlpha(
+                mForegroundStrokeShader != null ? Color.BLACK : mForegroundStrokeColor, mAlpha);
+        mForegroundStrokePaint.setColor(foregroundColor);
+        final int backgroundColor = modulateAlpha(
+                mBackgroundStrokeShader != null ? Color.BLACK : mBackgroundStrokeColor, mAlpha);
+        if (mBackgroundStrokePaint.getColor() != backgroundColor) {
+            mBackgroundStrokePaint.setColor(backgroundColor);
+            invalidateBackgroundStrokeCache();
+        }
+        final Drawable renderThreadDrawable = mRenderThreadIndeterminateDrawable;
+        if (renderThreadDrawable != null &&
+                Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            renderThreadDrawable.setTint(foregroundColor);
+        }
+    }
+
+    private void applyChanges(@NonNull final Editor editor, final int changes) {
+        final boolean restartIndeterminateAnimation =
+                (changes & CHANGES_INDETERMINATE_ANIMATION) != 0 ||
+                        (changes & CHANGE_FOREGROUND_STROKE_CAP) != 0 &&
+                                (mIndeterminateRenderThread ||
+                                        (changes & CHANGE_INDETERMINATE_RENDER_THREAD) != 0);
+        final boolean indeterminate = (changes & CHANGE_INDETERMINATE) != 0 ?
+                editor.mIndeterminate : mIndeterminate;
+        if (isVisible() && ((changes & CHANGES_PROGRESS_ANIMATION) != 0 ||
+                (changes & CHANGE_INDETERMINATE) != 0 && indeterminate)) {
+            endProgressAnimation();
+        }
+        if (restartIndeterminateAnimation) {
+            cancelIndeterminateAnimations();
+        }
+        mIndeterminate = indeterminate;
+        if ((changes & CHANGE_MAXIMUM) != 0) {
+            mMaximum = editor.mMaximum;
+            mProgressThresholdReference = Float.NaN;
+        }
+        if ((changes & CHANGE_START_ANGLE) != 0) {
+            mStartAngle = editor.mStartAngle;
+        }
+        if ((changes & CHANGE_INDETERMINATE_MINIMUM_ANGLE) != 0) {
+            mIndeterminateMinimumAngle = editor.mIndeterminateMinimumAngle;
+        }
+        if ((changes & CHANGE_FOREGROUND_STROKE_COLOR) != 0) {
+            mForegroundStrokeColor = editor.mForegroundStrokeColor;
+        }
+        if ((changes & CHANGE_BACKGROUND_STROKE_COLOR) != 0) {
+            mBackgroundStrokeColor = editor.mBackgroundStrokeColor;
+        }
+        if ((changes & CHANGE_SECONDARY_PROGRESS_STROKE_COLOR) != 0) {
+            mSecondaryProgressStrokeColor = editor.mSecondaryProgressStrokeColor;
+        }
+        if ((changes & CHANGE_FOREGROUND_STROKE_GRADIENT_COLORS) != 0) {
+            mForegroundStrokeGradientColors = editor.mForegroundStrokeGradientColors;
+        }
+        if ((changes & CHANGE_BACKGROUND_STROKE_GRADIENT_COLORS) != 0) {
+            mBackgroundStrokeGradientColors = editor.mBackgroundStrokeGradientColors;
+        }
+        if ((changes & CHANGE_FOREGROUND_STROKE_WIDTH) != 0) {
+            mForegroundStrokePaint.setStrokeWidth(editor.mForegroundStrokeWidth);
+        }
+        if ((changes & CHANGE_BACKGROUND_STROKE_WIDTH) != 0) {
+            mBackgroundStrokePaint.setStrokeWidth(editor.mBackgroundStrokeWidth);
+        }
+        if ((changes & CHANGE_FOREGROUND_STROKE_CAP) != 0) {
+            mForegroundStrokePaint.setStrokeCap(editor.mForegroundStrokeCap);
+        }
+        if ((changes & CHANGE_DRAW_BACKGROUND_STROKE) != 0) {
+            mDrawBackgroundStroke = editor.mDrawBackgroundStroke;
+        }
+        if ((changes & CHANGE_ANIMATE_PROGRESS) != 0) {
+            mAnimateProgress = editor.mAnimateProgress;
+        }
+        if ((changes & CHANGE_PROGRESS_SPRING_ANIMATION) != 0) {
+            mProgressSpringAnimation = editor.mProgressSpringAnimation;
+        }
+        if ((changes & CHANGE_PROGRESS_ANIMATION_DURATION) != 0) {
+            final long duration = editor.mProgressAnimationDuration;
+            mProgressAnimation.setDuration(duration);
+            mProgressSpring.setSettleDuration(duration);
+            mSecondaryProgressAnimation.setDuration(duration);
+            mSegmentAnimation.setDuration(duration);
+        }
+        if ((changes & CHANGE_PROGRESS_ANIMATION_INTERPOLATOR) != 0) {
+            mProgressAnimationInterpolator = editor.mProgressAnimationInterpolator;
+        }
+        if ((changes & CHANGE_INDETERMINATE_ROTATION_ANIMATION_DURATION) != 0) {
+            mIndeterminateRotationAnimator
+                    .setDuration(editor.mIndeterminateRotationAnimationDuration);
+        }
+        if ((changes & CHANGE_INDETERMINATE_ROTATION_ANIMATION_INTERPOLATOR) != 0) {
+            mIndeterminateRotationAnimationInterpolator =
+                    editor.mIndeterminateRotationAnimationInterpolator;
+        }
+        if ((changes & CHANGE_INDETERMINATE_SWEEP_ANIMATION_DURATION) != 0) {
+            mIndeterminateSweepAnimator.setDuration(editor.mIndeterminateSweepAnimationDuration);
+        }
+        if ((changes & CHANGE_INDETERMINATE_SWEEP_ANIMATION_INTERPOLATOR) != 0) {
+            mIndeterminateSweepAnimationInterpolator =
+                    editor.mIndeterminateSweepAnimationInterpolator;
+        }
+        if ((changes & CHANGE_INDETERMINATE_SHARED_CLOCK) != 0) {
+            mIndeterminateSharedClock = editor.mIndeterminateSharedClock;
+        }
+        if ((changes & CHANGE_INDETERMINATE_RENDER_THREAD) != 0) {
+            mIndeterminateRenderThread = editor.mIndeterminateRenderThread;
+        }
+        if ((changes & CHANGE_INDETERMINATE_TARGET_FRAME_RATE) != 0) {
+            mIndeterminateTargetFrameRate = editor.mIndeterminateTargetFrameRate;
+        }
+        if ((changes & CHANGE_INDETERMINATE_POWER_SAVING) != 0) {
+            mIndeterminatePowerSaving = editor.mIndeterminatePowerSaving;
+            if (mIndeterminatePowerSaving) {
+                PowerSaveMonitor.getInstance(mContext);
+            }
+        }
+        if ((changes & CHANGE_PRECOMPUTE_INTERPOLATORS) != 0) {
+            mPrecomputeInterpolators = editor.mPrecomputeInterpolators;
+        }
+        if ((changes & CHANGE_CACHE_BACKGROUND_STROKE) != 0) {
+            final BackgroundStrokeCache backgroundStrokeCache = mBackgroundStrokeCache;
+            if (editor.mCacheBackgroundStroke) {
+                if (backgroundStrokeCache == null) {
+                    mBackgroundStrokeCache = new BackgroundStrokeCache();
+                }
+            } else if (backgroundStrokeCache != null) {
+                backgroundStrokeCache.release();
+                mBackgroundStrokeCache = null;
+            }
+        }
+        if ((changes & (CHANGE_PROGRESS_ANIMATION_DURATION |
+                CHANGE_PROGRESS_ANIMATION_INTERPOLATOR | CHANGE_PRECOMPUTE_INTERPOLATORS)) != 0) {
+            invalidateProgressAnimationInterpolator();
+        }
+        if ((changes & CHANGES_INDETERMINATE_ANIMATORS) != 0) {
+            invalidateIndeterminateAnimationInterpolators();
+        }
+        if ((changes & CHANGE_FOREGROUND_STROKE_CAP) != 0) {
+            invalidateForegroundStrokeCapAngle();
+        }
+        if ((changes & CHANGES_DRAW_RECT) != 0) {
+            // Also rebuilds shaders and background stroke cache
+            invalidateDrawRect();
+        } else {
+            if ((changes & CHANGE_FOREGROUND_STROKE_GRADIENT_COLORS) != 0) {
+                invalidateForegroundStrokeShader();
+            }
+            if ((changes & CHANGE_BACKGROUND_STROKE_GRADIENT_COLORS) != 0 ||
+                    (changes & CHANGE_START_ANGLE) != 0 && mBackgroundStrokeShader != null) {
+                invalidateBackgroundStrokeShader();
+            }
+        }
+        if ((changes & CHANGES_STROKE_COLORS) != 0) {
+            invalidateStrokeColors();
+        }
+        invalidateSelf();
+        if (restartIndeterminateAnimation) {
+            restartIndeterminateAnimationsIfNeeded();
+        }
+        final Runnable progressRangeCallback = mProgressRangeCallback;
+        if (progressRangeCallback != null &&
+                (changes & (CHANGE_MAXIMUM | CHANGE_INDETERMINATE)) != 0) {
+            progressRangeCallback.run();
+        }
+    }
+
+    private void bindInternal(final boolean indeterminate, final float progress,
+            final float maximum, @ColorInt final int foregroundStrokeColor) {
+        cancelProgressAnimation();
+        final AnimationClock clock = getAnimationClockInternal();
+        clock.removeCallback(mSegmentFrameCallback);
+        mSecondaryProgressAnimation.cancel();
+        mSegmentAnimation.cancel();
+        final boolean wasIndeterminate = mIndeterminate;
+        if (wasIndeterminate && !indeterminate) {
+            cancelIndeterminateAnimations();
+        }
+        mIndeterminate = indeterminate;
+        mProgress = progress;
+        mMaximum = maximum;
+        mProgressThresholdReference = Float.NaN;
+        mSecondaryProgress = DEFAULT_SECONDARY_PROGRESS;
+        mSegmentCount = 0;
+        if (mForegroundStrokeColor != foregroundStrokeColor) {
+            mForegroundStrokeColor = foregroundStrokeColor;
+            invalidateStrokeColors();
+        }
+        if (!mBound) {
+            mBound = true;
+            // Progress bar may not be drawn, for example, when it's scrolled out
+            scheduleSelf(mUnbindAction, SystemClock.uptimeMillis());
+        }
+        if (indeterminate && !wasIndeterminate) {
+            restartIndeterminateAnimationsIfNeeded();
+        }
+        invalidateSelf();
+    }
+
+    private boolean isBelowProgressThreshold(final float progress) {
+        final float threshold = mProgressThreshold;
+        if (threshold <= 0f || mIndeterminate || mProgressAnimation.isRunning() ||
+                mProgressSpring.isRunning()) {
+            return false;
+        }
+        final float maximum = mMaximum;
+        final float diameter = mDrawRect.width();
+        if (maximum == 0f || diameter <= 0f) {
+            return false;
+        }
+        // NaN reference is never below threshold
+        final float change =
+                Math.abs(progress - mProgressThresholdReference) / maximum * diameter *
+                        (float) Math.PI;
+        return change < threshold;
+    }
+
+    private void clearBound() {
+        if (mBound) {
+            mBound = false;
+            unscheduleSelf(mUnbindAction);
+        }
+    }
+
+    private boolean isProgressAnimationAllowed() {
+        return isVisible() && mAnimateProgress && !mBound;
+    }
+
+    private void setProgressInternal(final float progress) {
+        mProgress = progress;
+        invalidateSelf();
+    }
+
+    private void setProgressAnimated(final float progress) {
+        mProgressAnimation.start(mProgress, progress);
+        getAnimationClockInternal().addCallback(mProgressFrameCallback);
+    }
+
+    private void setProgressSpring(final float progress) {
+        if (mProgressAnimation.isRunning()) {
+            // Continue from the current interpolated value
+            mProgressAnimation.cancel();
+        }
+        mProgressSpring.animateTo(mProgress, progress);
+        if (mProgressSpring.isRunning()) {
+            getAnimationClockInternal().addCallback(mProgressFrameCallback);
+        } else {
+            getAnimationClockInternal().removeCallback(mProgressFrameCallback);
+            setProgressInternal(progress);
+        }
+    }
+
+    private void endProgressAnimation() {
+        if (mProgressAnimation.isRunning()) {
+            mProgressAnimation.end();
+            getAnimationClockInternal().removeCallback(mProgressFrameCallback);
+            setProgressInternal(mProgressAnimation.getValue());
+        }
+        if (mProgressSpring.isRunning()) {
+            mProgressSpring.end();
+            getAnimationClockInternal().removeCallback(mProgressFrameCallback);
+            setProgressInternal(mProgressSpring.getValue());
+        }
+        if (mSecondaryProgressAnimation.isRunning() || mSegmentAnimation.isRunning()) {
+            getAnimationClockInternal().removeCallback(mSegmentFrameCallback);
+            if (mSecondaryProgressAnimation.isRunning()) {
+                mSecondaryProgressAnimation.end();
+                mSecondaryProgress = mSecondaryProgressAnimation.getValue();
+            }
+            if (mSegmentAnimation.isRunning()) {
+                mSegmentAnimation.end();
+                updateSegmentValues(1f);
+            }
+            invalidateSelf();
+        }
+    }
+
+    private void updateSegmentValues(final float fraction) {
+        final float[] values = mSegmentValues;
+        final float[] startValues = mSegmentStartValues;
+        final float[] endValues = mSegmentEndValues;
+        for (int i = 0, count = mSegmentCount; i < count; i++) {
+            final float start = startValues[i];
+            values[i] = start + (endValues[i] - start) * fraction;
+        }
+    }
+
+    private void cancelProgressAnimation() {
+        if (mProgressAnimation.isRunning()) {
+            mProgressAnimation.cancel();
+            getAnimationClockInternal().removeCallback(mProgressFrameCallback);
+        }
+        if (mProgressSpring.isRunning()) {
+            mProgressSpring.cancel();
+            getAnimationClockInternal().removeCallback(mProgressFrameCallback);
+        }
+    }
+
+    private void restartIndeterminateAnimationsIfNeeded() {
+        if (isVisible() && mStarted && mIndeterminate) {
+            startIndeterminateAnimations();
+        }
+    }
+
+    private void cancelIndeterminateAnimations() {
+        if (isRenderThreadIndeterminateAnimationRunning()) {
+            ((Animatable) mRenderThreadIndeterminateDrawable).stop();
+        }
+        // Animation phase is saved to be resumed later
+        if (mIndeterminateClockRunning) {
+            final AnimationClock clock = getAnimationClockInternal();
+            mIndeterminateClockRunning = false;
+            mIndeterminatePausedElapsedTime =
+                    Math.max(clock.getTime() - mIndeterminateStartTime, 0L);
+            clock.removeCallback(mIndeterminateFrameCallback);
+            unscheduleSelf(mIndeterminateFrameAction);
+        }
+        unscheduleSelf(mSweepRestartAction);
+        if (mIndeterminateRotationAnimator.isRunning()) {
+            mIndeterminatePausedRotationPlayTime =
+                    mIndeterminateRotationAnimator.getCurrentPlayTime();
+            mIndeterminateRotationAnimator.cancel();
+        }
+        if (mIndeterminateSweepAnimator.isRunning()) {
+            mIndeterminatePausedSweepPlayTime = mIndeterminateSweepAnimator.getCurrentPlayTime();
+            mIndeterminateSweepAnimator.cancel();
+        }
+    }
+
+    private void startIndeterminateAnimations() {
+        mIndeterminateLastFrameTime = 0L;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N_MR1 &&
+                isRenderThreadIndeterminateAnimationAvailable() &&
+                startRenderThreadIndeterminateAnimation()) {
+            return;
+        }
+        // Frame rate limited animation is driven by the clock to skip frames entirely
+        if (mIndeterminateSharedClock || mAnimationClock != null ||
+                mIndeterminateTargetFrameRate != 0f || mIndeterminatePowerSaving) {
+            if (!mIndeterminateClockRunning) {
+                mIndeterminateClockRunning = true;
+                mIndeterminatePausedRotationPlayTime = -1L;
+                mIndeterminatePausedSweepPlayTime = -1L;
+                final long pausedElapsedTime = mIndeterminatePausedElapsedTime;
+                if (mAnimationClock != null) {
+                    // Phase is locked to the clock time base
+                    mIndeterminateStartTime = 0L;
+                    mIndeterminateBaseGrowMode = false;
+                    mIndeterminateBaseOffsetAngle = 0f;
+                    mIndeterminatePausedElapsedTime = -1L;
+                } else if (pausedElapsedTime >= 0L) {
+                    // Resume from the same phase with the same base state
+                    mIndeterminateStartTime =
+                            getAnimationClockInternal().getTime() - pausedElapsedTime;
+                    mIndeterminatePausedElapsedTime = -1L;
+                } else {
+                    mIndeterminateStartTime = getAnimationClockInternal().getTime();
+                    mIndeterminateBaseGrowMode = mIndeterminateGrowMode;
+                    mIndeterminateBaseOffsetAngle = mIndeterminateOffsetAngle;
+                }
+                getAnimationClockInternal().addCallback(mIndeterminateFrameCallback);
+            }
+            return;
+        }
+        // Shared clock phase can't be resumed by animators
+        mIndeterminatePausedElapsedTime = -1L;
+        if (!mIndeterminateRotationAnimator.isRunning()) {
+            mIndeterminateRotationAnimator.start();
+            resumeIndeterminateAnimator(mIndeterminateRotationAnimator,
+                    mIndeterminatePausedRotationPlayTime);
+            mIndeterminatePausedRotationPlayTime = -1L;
+        }
+        if (!mIndeterminateSweepAnimator.isRunning()) {
+            mIndeterminateSweepAnimator.start();
+            resumeIndeterminateAnimator(mIndeterminateSweepAnimator,
+                    mIndeterminatePausedSweepPlayTime);
+            mIndeterminatePausedSweepPlayTime = -1L;
+        }
+    }
+
+    private static void resumeIndeterminateAnimator(@NonNull final ValueAnimator animator,
+            final long pausedPlayTime) {
+        final long duration = animator.getDuration();
+        if (pausedPlayTime > 0L && duration > 0L) {
+            animator.setCurrentPlayTime(pausedPlayTime % duration);
+        }
+    }
+
+    private boolean isRenderThreadIndeterminateAnimationAvailable() {
+        return mIndeterminateRenderThread && mIndeterminateRotationAnimator.getDuration() ==
+                DEFAULT_INDETERMINATE_ROTATION_ANIMATION_DURATION &&
+                mIndeterminateSweepAnimator.getDuration() ==
+                        DEFAULT_INDETERMINATE_SWEEP_ANIMATION_DURATION &&
+                mIndeterminateRotationAnimationInterpolator ==
+                        DEFAULT_INDETERMINATE_ROTATION_ANIMATION_INTERPOLATOR &&
+                mIndeterminateSweepAnimationInterpolator ==
+                        DEFAULT_INDETERMINATE_SWEEP_ANIMATION_INTERPOLATOR &&
+                mIndeterminateMinimumAngle == DEFAULT_INDETERMINATE_MINIMUM_ANGLE &&
+                mForegroundStrokeGradientColors == null &&
+                mIndeterminateTargetFrameRate == 0f && mAnimationClock == null &&
+                mForegroundStrokePaint.getStrokeCap() == Paint.Cap.BUTT &&
+                isRenderThreadDrawableStrokeWidth();
+    }
+
+    /**
+     * Whether foreground stroke width matches the stroke of the RenderThread drawable,
+     * which is scaled together with the ring
+     */
+    private boolean isRenderThreadDrawableStrokeWidth() {
+        final float radius = mDrawRect.width() / 2f;
+        final float strokeWidth =
+                radius * RENDER_THREAD_DRAWABLE_STROKE_WIDTH / RENDER_THREAD_DRAWABLE_RADIUS;
+        return radius > 0f && Math.abs(mForegroundStrokePaint.getStrokeWidth() - strokeWidth) <=
+                RENDER_THREAD_STROKE_WIDTH_TOLERANCE;
+    }
+
+    private boolean isRenderThreadIndeterminateAnimationRunning() {
+        final Drawable drawable = mRenderThreadIndeterminateDrawable;
+        return drawable != null && ((Animatable) drawable).isRunning();
+    }
+
+    @RequiresApi(Build.VERSION_CODES.N_MR1)
+    private boolean startRenderThreadIndeterminateAnimation() {
+        Drawable drawable = mRenderThreadIndeterminateDrawable;
+        if (drawable == null) {
+            drawable = mResources.getDrawable(R.drawable.circular_progress_bar_indeterminate, null);
+            if (!(drawable instanceof Animatable)) {
+                return false;
+            }
+            drawable = drawable.mutate();
+            drawable.setCallback(mChildCallback);
+            mRenderThreadIndeterminateDrawable = drawable;
+            invalidateRenderThreadDrawableBounds();
+        }
+        drawable.setTint(mForegroundStrokePaint.getColor());
+        final Animatable animatable = (Animatable) drawable;
+        if (!animatable.isRunning()) {
+            animatable.start();
+            invalidateSelf();
+        }
+        return true;
+    }
+
+    /**
+     * Compute indeterminate animation state for the specified frame time, state is
+     * equivalent to the one produced by rotation and sweep animators started at
+     * {@link #mIndeterminateStartTime}
+     */
+    private void updateIndeterminateState(final long time) {
+        final ArcGeometry geometry = mGeometry;
+        final float minimumAngle = mIndeterminateMinimumAngle;
+        geometry.computeIndeterminateFrame(time - mIndeterminateStartTime,
+                mIndeterminateRotationAnimator.getDuration(),
+                mIndeterminateSweepAnimator.getDuration(), minimumAngle,
+                mIndeterminateBaseGrowMode, mIndeterminateBaseOffsetAngle);
+        mIndeterminateStartAngle = 360f * mIndeterminateRotationAnimator.getInterpolator()
+                .getInterpolation(geometry.getRotationFraction());
+        mIndeterminateSweepAngle = (360f - minimumAngle * 2f) *
+                mIndeterminateSweepAnimator.getInterpolator()
+                        .getInterpolation(geometry.getSweepFraction());
+        mIndeterminateGrowMode = geometry.isGrowMode();
+        mIndeterminateOffsetAngle = geometry.getOffsetAngle();
+    }
+
+    @NonNull
+    private AnimationClock getAnimationClockInternal() {
+        final AnimationClock clock = mAnimationClock;
+        return clock != null ? clock : FrameClock.getInstance();
+    }
+
+    /**
+     * Minimum interval between indeterminate animation frames (in milliseconds)
+     * according to the target frame rate and power saving, {@code 0} if there's no limit,
+     * or {@code -1} if only the first frame should be drawn
+     */
+    private long getIndeterminateFrameInterval() {
+        float frameRate = mIndeterminateTargetFrameRate;
+        if (mIndeterminatePowerSaving) {
+            if (!FrameClock.areAnimatorsEnabled()) {
+                return -1L;
+            }
+            if (PowerSaveMonitor.getInstance(mContext).isPowerSaveMode() &&
+                    (frameRate == 0f || frameRate > POWER_SAVING_FRAME_RATE)) {
+                frameRate = POWER_SAVING_FRAME_RATE;
+            }
+        }
+        if (frameRate == 0f) {
+            return 0L;
+        }
+        return (long) (1000f / frameRate);
+    }
+
+    /**
+     * Whether indeterminate animation frame should be drawn
+     * according to the specified frame interval
+     */
+    private boolean shouldDrawIndeterminateFrame(final long time, final long interval) {
+        final long lastTime = mIndeterminateLastFrameTime;
+        if (interval < 0L) {
+            // Only the first frame is drawn
+            if (lastTime != 0L) {
+                return false;
+            }
+        } else if (interval > 0L && lastTime != 0L && time >= lastTime &&
+                time - lastTime + FRAME_INTERVAL_TOLERANCE_MILLIS < interval) {
+            return false;
+        }
+        mIndeterminateLastFrameTime = time;
+        return true;
+    }
+
+    /**
+     * Wait for the next frame of frame rate limited indeterminate animation driven by
+     * the default clock without receiving display frames, if it's possible
+     */
+    private void scheduleIndeterminateFrame(final long interval) {
+        if (interval == 0L || mAnimationClock != null || getCallback() == null) {
+            return;
+        }
+        // Frame times of the default clock share the uptime time base
+        final long time = interval > 0L ?
+                mIndeterminateLastFrameTime + interval - FRAME_INTERVAL_TOLERANCE_MILLIS :
+                SystemClock.uptimeMillis() + ANIMATORS_DISABLED_CHECK_INTERVAL_MILLIS;
+        getAnimationClockInternal().removeCallback(mIndeterminateFrameCallback);
+        scheduleSelf(mIndeterminateFrameAction, time);
+    }
+
+    /**
+     * Transaction of drawable property changes, that are applied together by {@link #apply()}
+     * <p>
+     * Changed values are validated when they're set, draw rect is recalculated at most once,
+     * indeterminate animation is restarted at most once and the drawable is invalidated once;
+     * properties, that aren't set in the transaction, keep their current values
+     *
+     * @see #edit()
+     */
+    public final class Editor {
+        private TimeInterpolator mProgressAnimationInterpolator;
+        private TimeInterpolator mIndeterminateRotationAnimationInterpolator;
+        private TimeInterpolator mIndeterminateSweepAnimationInterpolator;
+        private Paint.Cap mForegroundStrokeCap;
+        private int[] mForegroundStrokeGradientColors;
+        private int[] mBackgroundStrokeGradientColors;
+        private int mForegroundStrokeColor;
+        private int mBackgroundStrokeColor;
+        private int mSecondaryProgressStrokeColor;
+        private float mMaximum;
+        private float mStartAngle;
+        private float mIndeterminateMinimumAngle;
+        private float mIndeterminateTargetFrameRate;
+        private float mForegroundStrokeWidth;
+        private float mBackgroundStrokeWidth;
+        private long mProgressAnimationDuration;
+        private long mIndeterminateRotationAnimationDuration;
+        private long mIndeterminateSweepAnimationDuration;
+        private boolean mIndeterminate;
+        private boolean mAnimateProgress;
+        private boolean mProgressSpringAnimation;
+        private boolean mDrawBackgroundStroke;
+        private boolean mCacheBackgroundStroke;
+        private boolean mPrecomputeInterpolators;
+        private boolean mIndeterminateSharedClock;
+        private boolean mIndeterminateRenderThread;
+        private boolean mIndeterminatePowerSaving;
+        private int mChanges;
+
+        private Editor() {
+        }
+
+        /**
+         * Maximum progress for non-indeterminate mode
+         */
+        @NonNull
+        public Editor setMaximum(final float maximum) {
+            mMaximum = maximum;
+            mChanges |= CHANGE_MAXIMUM;
+            return this;
+        }
+
+        /**
+         * Start angle for non-indeterminate mode, between -360 and 360 degrees
+         */
+        @NonNull
+        public Editor setStartAngle(@FloatRange(from = -360f, to = 360f) final float angle) {
+            checkStartAngle(angle);
+            mStartAngle = angle;
+            mChanges |= CHANGE_START_ANGLE;
+            return this;
+        }
+
+        /**
+         * Indeterminate mode, disabled by default
+         */
+        @NonNull
+        public Editor setIndeterminate(final boolean indeterminate) {
+            mIndeterminate = indeterminate;
+            mChanges |= CHANGE_INDETERMINATE;
+            return this;
+        }
+
+        /**
+         * Minimum angle for indeterminate mode, between 0 and 180 degrees
+         */
+        @NonNull
+        public Editor setIndeterminateMinimumAngle(
+                @FloatRange(from = 0f, to = 180f) final float angle) {
+            checkIndeterminateMinimumAngle(angle);
+            mIndeterminateMinimumAngle = angle;
+            mChanges |= CHANGE_INDETERMINATE_MINIMUM_ANGLE;
+            return this;
+        }
+
+        /**
+         * Foreground stroke color
+         */
+        @NonNull
+        public Editor setForegroundStrokeColor(@ColorInt final int color) {
+            mForegroundStrokeColor = color;
+            mChanges |= CHANGE_FOREGROUND_STROKE_COLOR;
+            return this;
+        }
+
+        /**
+         * Background stroke color
+         */
+        @NonNull
+        public Editor setBackgroundStrokeColor(@ColorInt final int color) {
+            mBackgroundStrokeColor = color;
+            mChanges |= CHANGE_BACKGROUND_STROKE_COLOR;
+            return this;
+        }
+
+        /**
+         * Secondary progress stroke color
+         */
+        @NonNull
+        public Editor setSecondaryProgressStrokeColor(@ColorInt final int color) {
+            mSecondaryProgressStrokeColor = color;
+            mChanges |= CHANGE_SECONDARY_PROGRESS_STROKE_COLOR;
+            return this;
+        }
+
+        /**
+         * Foreground stroke gradient colors, evenly distributed around the ring
+         * and rotated together with the progress arc; foreground stroke color is used
+         * if {@code null} (by default). Gradient isn't used for progress segments and
+         * secondary progress, and it disables RenderThread indeterminate animation.
+         */
+        @NonNull
+        public Editor setForegroundStrokeGradientColors(@Nullable final int[] colors) {
+            checkGradientColors(colors);
+            mForegroundStrokeGradientColors = colors != null ? colors.clone() : null;
+            mChanges |= CHANGE_FOREGROUND_STROKE_GRADIENT_COLORS;
+            return this;
+        }
+
+        /**
+         * Background stroke gradient colors, evenly distributed around the ring from the start
+         * angle; background stroke color is used if {@code null} (by default)
+         */
+        @NonNull
+        public Editor setBackgroundStrokeGradientColors(@Nullable final int[] colors) {
+            checkGradientColors(colors);
+            mBackgroundStrokeGradientColors = colors != null ? colors.clone() : null;
+            mChanges |= CHANGE_BACKGROUND_STROKE_GRADIENT_COLORS;
+            return this;
+        }
+
+        /**
+         * Foreground stroke width (in pixels)
+         */
+        @NonNull
+        public Editor setForegroundStrokeWidth(
+                @FloatRange(from = 0f, to = Float.MAX_VALUE) final float width) {
+            checkStrokeWidth(width);
+            mForegroundStrokeWidth = width;
+            mChanges |= CHANGE_FOREGROUND_STROKE_WIDTH;
+            return this;
+        }
+
+        /**
+         * Background stroke width (in pixels)
+         */
+        @NonNull
+        public Editor setBackgroundStrokeWidth(
+                @FloatRange(from = 0f, to = Float.MAX_VALUE) final float width) {
+            checkStrokeWidth(width);
+            mBackgroundStrokeWidth = width;
+            mChanges |= CHANGE_BACKGROUND_STROKE_WIDTH;
+            return this;
+        }
+
+        /**
+         * Foreground stroke cap
+         */
+        @NonNull
+        public Editor setForegroundStrokeCap(@NonNull final Paint.Cap cap) {
+            checkStrokeCap(cap);
+            mForegroundStrokeCap = cap;
+            mChanges |= CHANGE_FOREGROUND_STROKE_CAP;
+            return this;
+        }
+
+        /**
+         * Whether to draw background stroke
+         */
+        @NonNull
+        public Editor setDrawBackgroundStroke(final boolean draw) {
+            mDrawBackgroundStroke = draw;
+            mChanges |= CHANGE_DRAW_BACKGROUND_STROKE;
+            return this;
+        }
+
+        /**
+         * Whether to cache background stroke, disabled by default
+         */
+        @NonNull
+        public Editor setCacheBackgroundStroke(final boolean cache) {
+            mCacheBackgroundStroke = cache;
+            mChanges |= CHANGE_CACHE_BACKGROUND_STROKE;
+            return this;
+        }
+
+        /**
+         * Whether to animate progress for non-indeterminate mode
+         */
+        @NonNull
+        public Editor setAnimateProgress(final boolean animate) {
+            mAnimateProgress = animate;
+            mChanges |= CHANGE_ANIMATE_PROGRESS;
+            return this;
+        }
+
+        /**
+         * Whether to animate progress with a critically damped spring, disabled by default
+         */
+        @NonNull
+        public Editor setProgressSpringAnimation(final boolean spring) {
+            mProgressSpringAnimation = spring;
+            mChanges |= CHANGE_PROGRESS_SPRING_ANIMATION;
+            return this;
+        }
+
+        /**
+         * Progress animation duration for non-indeterminate mode (in milliseconds)
+         */
+        @NonNull
+        public Editor setProgressAnimationDuration(@IntRange(from = 0) final long duration) {
+            checkAnimationDuration(duration);
+            mProgressAnimationDuration = duration;
+            mChanges |= CHANGE_PROGRESS_ANIMATION_DURATION;
+            return this;
+        }
+
+        /**
+         * Progress animation interpolator for non-indeterminate mode
+         */
+        @NonNull
+        public Editor setProgressAnimationInterpolator(
+                @NonNull final TimeInterpolator interpolator) {
+            checkInterpolator(interpolator);
+            mProgressAnimationInterpolator = interpolator;
+            mChanges |= CHANGE_PROGRESS_ANIMATION_INTERPOLATOR;
+            return this;
+        }
+
+        /**
+         * Rotation animation duration for indeterminate mode (in milliseconds)
+         */
+        @NonNull
+        public Editor setIndeterminateRotationAnimationDuration(
+                @IntRange(from = 0) final long duration) {
+            checkAnimationDuration(duration);
+            mIndeterminateRotationAnimationDuration = duration;
+            mChanges |= CHANGE_INDETERMINATE_ROTATION_ANIMATION_DURATION;
+            return this;
+        }
+
+        /**
+         * Rotation animation interpolator for indeterminate mode
+         */
+        @NonNull
+        public Editor setIndeterminateRotationAnimationInterpolator(
+                @NonNull final TimeInterpolator interpolator) {
+            checkInterpolator(interpolator);
+            mIndeterminateRotationAnimationInterpolator = interpolator;
+            mChanges |= CHANGE_INDETERMINATE_ROTATION_ANIMATION_INTERPOLATOR;
+            return this;
+        }
+
+        /**
+         * Sweep animation duration for indeterminate mode (in milliseconds)
+         */
+        @NonNull
+        public Editor setIndeterminateSweepAnimationDuration(
+                @IntRange(from = 0) final long duration) {
+            checkAnimationDuration(duration);
+            mIndeterminateSweepAnimationDuration = duration;
+            mChanges |= CHANGE_INDETERMINATE_SWEEP_ANIMATION_DURATION;
+            return this;
+        }
+
+        /**
+         * Sweep animation interpolator for indeterminate mode
+         */
+        @NonNull
+        public Editor setIndeterminateSweepAnimationInterpolator(
+                @NonNull final TimeInterpolator interpolator) {
+            checkInterpolator(interpolator);
+            mIndeterminateSweepAnimationInterpolator = interpolator;
+            mChanges |= CHANGE_INDETERMINATE_SWEEP_ANIMATION_INTERPOLATOR;
+            return this;
+        }
+
+        /**
+         * Whether to drive indeterminate animation by the process-wide shared frame clock
+         * instead of per-drawable animators, disabled by default
+         */
+        @NonNull
+        public Editor setIndeterminateSharedClock(final boolean sharedClock) {
+            mIndeterminateSharedClock = sharedClock;
+            mChanges |= CHANGE_INDETERMINATE_SHARED_CLOCK;
+            return this;
+        }
+
+        /**
+         * Whether to run indeterminate animation on the RenderThread when possible,
+         * disabled by default
+         */
+        @NonNull
+        public Editor setIndeterminateRenderThread(final boolean renderThread) {
+            mIndeterminateRenderThread = renderThread;
+            mChanges |= CHANGE_INDETERMINATE_RENDER_THREAD;
+            return this;
+        }
+
+        /**
+         * Target frame rate of indeterminate animation (in frames per second), {@code 0} (default)
+         * to run at the display refresh rate
+         */
+        @NonNull
+        public Editor setIndeterminateTargetFrameRate(
+                @FloatRange(from = 0f) final float frameRate) {
+            checkTargetFrameRate(frameRate);
+            mIndeterminateTargetFrameRate = frameRate;
+            mChanges |= CHANGE_INDETERMINATE_TARGET_FRAME_RATE;
+            return this;
+        }
+
+        /**
+         * Whether to save power on indeterminate animation, disabled by default
+         */
+        @NonNull
+        public Editor setIndeterminatePowerSaving(final boolean powerSaving) {
+            mIndeterminatePowerSaving = powerSaving;
+            mChanges |= CHANGE_INDETERMINATE_POWER_SAVING;
+            return this;
+        }
+
+        /**
+         * Whether to precompute animation interpolators, disabled by default
+         */
+        @NonNull
+        public Editor setPrecomputeInterpolators(final boolean precompute) {
+            mPrecomputeInterpolators = precompute;
+            mChanges |= CHANGE_PRECOMPUTE_INTERPOLATORS;
+            return this;
+        }
+
+        /**
+         * Apply changes to the drawable, editor can be reused after that
+         */
+        public void apply() {
+            final int changes = mChanges;
+            if (changes == 0) {
+                return;
+            }
+            mChanges = 0;
+            applyChanges(this, changes);
+            // Editor shouldn't keep references to the applied values
+            mProgressAnimationInterpolator = null;
+            mIndeterminateRotationAnimationInterpolator = null;
+            mIndeterminateSweepAnimationInterpolator = null;
+            mForegroundStrokeCap = null;
+            mForegroundStrokeGradientColors = null;
+            mBackgroundStrokeGradientColors = null;
+        }
+    }
+
+    @ColorInt
+    private static int modulateAlpha(@ColorInt final int color, final int alpha) {
+        if (alpha == 255) {
+            return color;
+        }
+        return (color & 0x00ffffff) | ((Color.alpha(color) * alpha / 255) << 24);
+    }
+
+    private final class ProgressFrameCallback implements AnimationClock.Callback {
+        @Override
+        public void onFrame(final long frameTimeMillis) {
+            final RenderMetricsCollector metrics = mRenderMetrics;
+            if (metrics != null) {
+                metrics.beginAnimationFrame(isVisible(), frameTimeMillis);
+                update(frameTimeMillis);
+                metrics.endAnimationFrame();
+            } else {
+                update(frameTimeMillis);
+            }
+        }
+
+        private void update(final long frameTimeMillis) {
+            final ProgressSpring spring = mProgressSpring;
+            if (spring.isRunning()) {
+                // Settled when remaining distance is less than 0.1 degree
+                final float threshold = Math.max(Math.abs(mMaximum) / 3600f, 1e-6f);
+                if (!spring.update(frameTimeMillis, threshold)) {
+                    getAnimationClockInternal().removeCallback(this);
+                }
+                setProgressInternal(spring.getValue());
+                return;
+            }
+            final FloatAnimation animation = mProgressAnimation;
+            if (!animation.update(frameTimeMillis)) {
+                getAnimationClockInternal().removeCallback(this);
+            }
+            setProgressInternal(animation.getValue());
+        }
+    }
+
+    private final class SegmentFrameCallback implements AnimationClock.Callback {
+        @Override
+        public void onFrame(final long frameTimeMillis) {
+            final RenderMetricsCollector metrics = mRenderMetrics;
+            if (metrics != null) {
+                metrics.beginAnimationFrame(isVisible(), frameTimeMillis);
+                update(frameTimeMillis);
+                metrics.endAnimationFrame();
+            } else {
+                update(frameTimeMillis);
+            }
+        }
+
+        private void update(final long frameTimeMillis) {
+            final FloatAnimation secondaryAnimation = mSecondaryProgressAnimation;
+            final FloatAnimation segmentAnimation = mSegmentAnimation;
+            if (secondaryAnimation.isRunning()) {
+                secondaryAnimation.update(frameTimeMillis);
+                mSecondaryProgress = secondaryAnimation.getValue();
+            }
+            if (segmentAnimation.isRunning()) {
+                segmentAnimation.update(frameTimeMillis);
+                updateSegmentValues(segmentAnimation.getValue());
+            }
+            if (!secondaryAnimation.isRunning() && !segmentAnimation.isRunning()) {
+                getAnimationClockInternal().removeCallback(this);
+            }
+            invalidateSelf();
+        }
+    }
+
+    // Animated fraction is used instead of animated value to avoid boxing on each frame
+    private final class StartUpdateListener implements ValueAnimator.AnimatorUpdateListener {
+        @Override
+        public void onAnimationUpdate(final ValueAnimator animation) {
+            final RenderMetricsCollector metrics = mRenderMetrics;
+            if (metrics != null) {
+                metrics.beginAnimationFrame(isVisible(), FrameClock.now());
+            }
+            mIndeterminateStartAngle = 360f * animation.getAnimatedFraction();
+            invalidateSelf();
+            if (metrics != null) {
+                metrics.endAnimationFrame();
+            }
+        }
+    }
+
+    private final class SweepUpdateListener implements ValueAnimator.AnimatorUpdateListener {
+        @Override
+        public void onAnimationUpdate(final ValueAnimator animation) {
+            mIndeterminateSweepAngle =
+                    (360f - mIndeterminateMinimumAngle * 2f) * animation.getAnimatedFraction();
+        }
+    }
+
+    private final class SweepAnimatorListener implements ValueAnimator.AnimatorListener {
+        private boolean mCancelled;
+
+        @Override
+        public void onAnimationStart(final Animator animation) {
+            mCancelled = false;
+        }
+
+        @Override
+        public void onAnimationEnd(final Animator animation) {
+            if (!mCancelled) {
+                scheduleSelf(mSweepRestartAction, SystemClock.uptimeMillis());
+            }
+        }
+
+        @Override
+        public void onAnimationCancel(final Animator animation) {
+            mCancelled = true;
+        }
+
+        @Override
+        public void onAnimationRepeat(final Animator animation) {
+            // Do nothing
+        }
+    }
+
+    private final class IndeterminateFrameCallback implements AnimationClock.Callback {
+        @Override
+        public void onFrame(final long frameTimeMillis) {
+            final RenderMetricsCollector metrics = mRenderMetrics;
+            if (metrics != null) {
+                metrics.beginAnimationFrame(isVisible(), frameTimeMillis);
+            }
+            final long interval = getIndeterminateFrameInterval();
+            if (shouldDrawIndeterminateFrame(frameTimeMillis, interval)) {
+                // State depends on frame time only, so skipped frames aren't computed
+                updateIndeterminateState(frameTimeMillis);
+                invalidateSelf();
+            }
+            scheduleIndeterminateFrame(interval);
+            if (metrics != null) {
+                metrics.endAnimationFrame();
+            }
+        }
+    }
+
+    private final class IndeterminateFrameAction implements Runnable {
+        @Override
+        public void run() {
+            if (mIndeterminateClockRunning) {
+                getAnimationClockInternal().addCallback(mIndeterminateFrameCallback);
+            }
+        }
+    }
+
+    private final class UnbindAction implements Runnable {
+        @Override
+        public void run() {
+            mBound = false;
+        }
+    }
+
+    private final class SweepRestartAction implements Runnable {
+        @Override
+        public void run() {
+            mIndeterminateGrowMode = !mIndeterminateGrowMode;
+            if (mIndeterminateGrowMode) {
+                mIndeterminateOffsetAngle =
+                        (mIndeterminateOffsetAngle + mIndeterminateMinimumAngle * 2f) % 360f;
+            }
+            if (mIndeterminateSweepAnimator.isRunning()) {
+                mIndeterminateSweepAnimator.cancel();
+            }
+            if (isVisible() && mStarted) {
+                mIndeterminateSweepAnimator.start();
+            }
+        }
+    }
+
+    private final class ChildCallback implements Drawable.Callback {
+        @Override
+        public void invalidateDrawable(@NonNull final Drawable who) {
+            invalidateSelf();
+        }
+
+        @Override
+        public void scheduleDrawable(@NonNull final Drawable who, @NonNull final Runnable what,
+                final long when) {
+            scheduleSelf(what, when);
+        }
+
+        @Override
+        public void unscheduleDrawable(@NonNull final Drawable who, @NonNull final Runnable what) {
+            unscheduleSelf(what);
+        }
+    }
+}
@@ -0,0 +1,808 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import android.animation.TimeInterpolator;
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.animation.DecelerateInterpolator;
+
+import androidx.annotation.AttrRes;
+import androidx.annotation.ColorInt;
+import androidx.annotation.FloatRange;
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+import androidx.annotation.StyleRes;
+
+/**
+ * Grid of independent circular progress rings, rendered by a single view
+ * <p>
+ * Ring state (progress, maximum, color and indeterminate mode) is stored per slot
+ * in primitive arrays, all rings are drawn in one pass and animated by one frame callback,
+ * so memory and frame cost depend on the number of slots only. Rings are laid out
+ * row by row in square cells, indeterminate rings spin in sync.
+ */
+public final class CircularProgressGrid extends View {
+    private static final int DEFAULT_COLUMN_COUNT = 4;
+    private final AnimationClock.Callback mFrameCallback = new FrameCallback();
+    private final TimeInterpolator mProgressAnimationInterpolator = new DecelerateInterpolator();
+    private final TimeInterpolator mIndeterminateSweepAnimationInterpolator =
+            new DecelerateInterpolator();
+    private final ArcGeometry mGeometry = new ArcGeometry();
+    private final Paint mForegroundStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mBackgroundStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF mDrawRect = new RectF();
+    private final Rect mClipBounds = new Rect();
+    private AnimationClock mAnimationClock = null;
+    private float[] mProgress = new float[0];
+    private float[] mMaximum = new float[0];
+    private float[] mDisplayedProgress = new float[0];
+    private float[] mAnimationStartProgress = new float[0];
+    private long[] mAnimationStartTime = new long[0];
+    private int[] mColors = new int[0];
+    private boolean[] mIndeterminate = new boolean[0];
+    private boolean[] mAnimating = new boolean[0];
+    private int mSlotCount = 0;
+    private int mAnimatingCount = 0;
+    private int mIndeterminateCount = 0;
+    private int mColumnCount = 0;
+    private int mCellSize = 0;
+    private int mDefaultCellSize = 0;
+    private float mStartAngle = 0f;
+    private float mIndeterminateStartAngle = 0f;
+    private float mIndeterminateSweepAngle = 0f;
+    private float mIndeterminateOffsetAngle = 0f;
+    private float mIndeterminateMinimumAngle = 0f;
+    private long mProgressAnimationDuration = 0L;
+    private long mIndeterminateRotationAnimationDuration = 0L;
+    private long mIndeterminateSweepAnimationDuration = 0L;
+    private boolean mIndeterminateGrowMode = false;
+    private boolean mAnimateProgress = false;
+    private boolean mDrawBackgroundStroke = false;
+    private boolean mVisible = false;
+    private boolean mFrameCallbackRegistered = false;
+
+    public CircularProgressGrid(@NonNull final Context context) {
+        super(context);
+        initialize(context, null, 0, 0);
+    }
+
+    public CircularProgressGrid(@NonNull final Context context,
+            @Nullable final AttributeSet attrs) {
+        super(context, attrs);
+        initialize(context, attrs, 0, 0);
+    }
+
+    public CircularProgressGrid(@NonNull final Context context, @Nullable final AttributeSet attrs,
+            final int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        initialize(context, attrs, defStyleAttr, 0);
+    }
+
+    @RequiresApi(Build.VERSION_CODES.LOLLIPOP)
+    public CircularProgressGrid(@NonNull final Context context, @Nullable final AttributeSet attrs,
+            final int defStyleAttr, final int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+        initialize(context, attrs, defStyleAttr, defStyleRes);
+    }
+
+    /**
+     * Number of ring slots
+     */
+    public int getSlotCount() {
+        return mSlotCount;
+    }
+
+    /**
+     * Number of ring slots, new slots have zero progress, default maximum,
+     * default foreground stroke color and aren't indeterminate
+     */
+    public void setSlotCount(@IntRange(from = 0) final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Slot count can't be negative");
+        }
+        final int previousCount = mSlotCount;
+        if (count > mProgress.length) {
+            final int capacity = Math.max(count, mProgress.length * 2);
+            mProgress = copyOf(mProgress, capacity);
+            mMaximum = copyOf(mMaximum, capacity);
+            mDisplayedProgress = copyOf(mDisplayedProgress, capacity);
+            mAnimationStartProgress = copyOf(mAnimationStartProgress, capacity);
+            final long[] startTime = new long[capacity];
+            System.arraycopy(mAnimationStartTime, 0, startTime, 0, previousCount);
+            mAnimationStartTime = startTime;
+            final int[] colors = new int[capacity];
+            System.arraycopy(mColors, 0, colors, 0, previousCount);
+            mColors = colors;
+            final boolean[] indeterminate = new boolean[capacity];
+            System.arraycopy(mIndeterminate, 0, indeterminate, 0, previousCount);
+            mIndeterminate = indeterminate;
+            final boolean[] animating = new boolean[capacity];
+            System.arraycopy(mAnimating, 0, animating, 0, previousCount);
+            mAnimating = animating;
+        }
+        for (int i = count; i < previousCount; i++) {
+            if (mAnimating[i]) {
+                mAnimating[i] = false;
+                mAnimatingCount--;
+            }
+            if (mIndeterminate[i]) {
+                mIndeterminate[i] = false;
+                mIndeterminateCount--;
+            }
+        }
+        for (int i = previousCount; i < count; i++) {
+            mProgress[i] = CircularProgressDrawable.DEFAULT_PROGRESS;
+            mDisplayedProgress[i] = CircularProgressDrawable.DEFAULT_PROGRESS;
+            mMaximum[i] = CircularProgressDrawable.DEFAULT_MAXIMUM;
+            mColors[i] = CircularProgressDrawable.DEFAULT_FOREGROUND_STROKE_COLOR;
+        }
+        mSlotCount = count;
+        updateFrameCallback();
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Progress of the specified slot
+     */
+    public float getProgress(final int slot) {
+        checkSlot(slot);
+        return mProgress[slot];
+    }
+
+    /**
+     * Progress of the specified slot, changes are animated if
+     * {@linkplain #setAnimateProgress(boolean) progress animation} is enabled
+     */
+    public void setProgress(final int slot, final float progress) {
+        checkSlot(slot);
+        mProgress[slot] = progress;
+        if (mAnimateProgress && mVisible && !mIndeterminate[slot]) {
+            mAnimationStartProgress[slot] = mDisplayedProgress[slot];
+            // Start time is taken from the next frame
+            mAnimationStartTime[slot] = -1L;
+            if (!mAnimating[slot]) {
+                mAnimating[slot] = true;
+                mAnimatingCount++;
+            }
+            updateFrameCallback();
+        } else {
+            if (mAnimating[slot]) {
+                mAnimating[slot] = false;
+                mAnimatingCount--;
+            }
+            mDisplayedProgress[slot] = progress;
+            invalidate();
+        }
+    }
+
+    /**
+     * Maximum progress of the specified slot
+     */
+    public float getMaximum(final int slot) {
+        checkSlot(slot);
+        return mMaximum[slot];
+    }
+
+    /**
+     * Maximum progress of the specified slot
+     */
+    public void setMaximum(final int slot, final float maximum) {
+        checkSlot(slot);
+        CircularProgressDrawable.checkMaximum(maximum);
+        mMaximum[slot] = maximum;
+        invalidate();
+    }
+
+    /**
+     * Foreground stroke color of the specified slot
+     */
+    @ColorInt
+    public int getColor(final int slot) {
+        checkSlot(slot);
+        return mColors[slot];
+    }
+
+    /**
+     * Foreground stroke color of the specified slot
+     */
+    public void setColor(final int slot, @ColorInt final int color) {
+        checkSlot(slot);
+        mColors[slot] = color;
+        invalidate();
+    }
+
+    /**
+     * Indeterminate mode of the specified slot
+     */
+    public boolean isIndeterminate(final int slot) {
+        checkSlot(slot);
+        return mIndeterminate[slot];
+    }
+
+    /**
+     * Indeterminate mode of the specified slot
+     */
+    public void setIndeterminate(final int slot, final boolean indeterminate) {
+        checkSlot(slot);
+        if (mIndeterminate[slot] == indeterminate) {
+            return;
+        }
+        mIndeterminate[slot] = indeterminate;
+        if (indeterminate) {
+            mIndeterminateCount++;
+            if (mAnimating[slot]) {
+                mAnimating[slot] = false;
+                mAnimatingCount--;
+                mDisplayedProgress[slot] = mProgress[slot];
+            }
+        } else {
+            mIndeterminateCount--;
+        }
+        updateFrameCallback();
+        invalidate();
+    }
+
+    /**
+     * Number of grid columns
+     */
+    @IntRange(from = 1)
+    public int getColumnCount() {
+        return mColumnCount;
+    }
+
+    /**
+     * Number of grid columns, rings are square cells of the grid width divided
+     * by the number of columns
+     */
+    public void setColumnCount(@IntRange(from = 1) final int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Column count should be positive");
+        }
+        mColumnCount = count;
+        invalidateCellGeometry();
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Start angle of non-indeterminate rings, between -360 and 360 degrees
+     */
+    @FloatRange(from = -360f, to = 360f)
+    public float getStartAngle() {
+        return mStartAngle;
+    }
+
+    /**
+     * Start angle of non-indeterminate rings, between -360 and 360 degrees
+     */
+    public void setStartAngle(@FloatRange(from = -360f, to = 360f) final float angle) {
+        CircularProgressDrawable.checkStartAngle(angle);
+        mStartAngle = angle;
+        invalidate();
+    }
+
+    /**
+     * Whether to animate progress changes
+     */
+    public boolean isAnimateProgress() {
+        return mAnimateProgress;
+    }
+
+    /**
+     * Whether to animate progress changes
+     */
+    public void setAnimateProgress(final boolean animate) {
+        mAnimateProgress = animate;
+        if (!animate) {
+            endProgressAnimations();
+        }
+    }
+
+    /**
+     * Progress animation duration (in milliseconds)
+     */
+    @IntRange(from = 0)
+    public long getProgressAnimationDuration() {
+        return mProgressAnimationDuration;
+    }
+
+    /**
+     * Progress animation duration (in milliseconds)
+     */
+    public void setProgressAnimationDuration(@IntRange(from = 0) final long duration) {
+        CircularProgressDrawable.checkAnimationDuration(duration);
+        endProgressAnimations();
+        mProgressAnimationDuration = duration;
+    }
+
+    /**
+     * Minimum angle of indeterminate rings, between 0 and 180 degrees
+     */
+    @FloatRange(from = 0f, to = 180f)
+    public float getIndeterminateMinimumAngle() {
+        return mIndeterminateMinimumAngle;
+    }
+
+    /**
+     * Minimum angle of indeterminate rings, between 0 and 180 degrees
+     */
+    public void setIndeterminateMinimumAngle(@FloatRange(from = 0f, to = 180f) final float angle) {
+        CircularProgressDrawable.checkIndeterminateMinimumAngle(angle);
+        mIndeterminateMinimumAngle = angle;
+        invalidate();
+    }
+
+    /**
+     * Rotation animation duration of indeterminate rings (in milliseconds)
+     */
+    @IntRange(from = 0)
+    public long getIndeterminateRotationAnimationDuration() {
+        return mIndeterminateRotationAnimationDuration;
+    }
+
+    /**
+     * Rotation animation duration of indeterminate rings (in milliseconds)
+     */
+    public void setIndeterminateRotationAnimationDuration(@IntRange(from = 0) final long duration) {
+        CircularProgressDrawable.checkAnimationDuration(duration);
+        mIndeterminateRotationAnimationDuration = duration;
+        invalidate();
+    }
+
+    /**
+     * Sweep animation duration of indeterminate rings (in milliseconds)
+     */
+    @IntRange(from = 0)
+    public long getIndeterminateSweepAnimationDuration() {
+        return mIndeterminateSweepAnimationDuration;
+    }
+
+    /**
+     * Sweep animation duration of indeterminate rings (in milliseconds)
+     */
+    public void setIndeterminateSweepAnimationDuration(@IntRange(from = 0) final long duration) {
+        CircularProgressDrawable.checkAnimationDuration(duration);
+        mIndeterminateSweepAnimationDuration = duration;
+        invalidate();
+    }
+
+    /**
+     * Foreground stroke cap
+     */
+    @NonNull
+    public Paint.Cap getForegroundStrokeCap() {
+        return mForegroundStrokePaint.getStrokeCap();
+    }
+
+    /**
+     * Foreground stroke cap
+     */
+    public void setForegroundStrokeCap(@NonNull final Paint.Cap cap) {
+        CircularProgressDrawable.checkStrokeCap(cap);
+        mForegroundStrokePaint.setStrokeCap(cap);
+        invalidateCellGeometry();
+        invalidate();
+    }
+
+    /**
+     * Foreground stroke width (in pixels)
+     */
+    @FloatRange(from = 0f, to = Float.MAX_VALUE)
+    public float getForegroundStrokeWidth() {
+        return mForegroundStrokePaint.getStrokeWidth();
+    }
+
+    /**
+     * Foreground stroke width (in pixels)
+     */
+    public void setForegroundStrokeWidth(
+            @FloatRange(from = 0f, to = Float.MAX_VALUE) final float width) {
+        CircularProgressDrawable.checkStrokeWidth(width);
+        mForegroundStrokePaint.setStrokeWidth(width);
+        invalidateCellGeometry();
+        invalidate();
+    }
+
+    /**
+     * Whether to draw background stroke
+     */
+    public boolean isDrawBackgroundStroke() {
+        return mDrawBackgroundStroke;
+    }
+
+    /**
+     * Whether to draw background stroke
+     */
+    public void setDrawBackgroundStroke(final boolean draw) {
+        mDrawBackgroundStroke = draw;
+        invalidateCellGeometry();
+        invalidate();
+    }
+
+    /**
+     * Background stroke color
+     */
+    @ColorInt
+    public int getBackgroundStrokeColor() {
+        return mBackgroundStrokePaint.getColor();
+    }
+
+    /**
+     * Background stroke color
+     */
+    public void setBackgroundStrokeColor(@ColorInt final int color) {
+        mBackgroundStrokePaint.setColor(color);
+        invalidate();
+    }
+
+    /**
+     * Background stroke width (in pixels)
+     */
+    @FloatRange(from = 0f, to = Float.MAX_VALUE)
+    public float getBackgroundStrokeWidth() {
+        return mBackgroundStrokePaint.getStrokeWidth();
+    }
+
+    /**
+     * Background stroke width (in pixels)
+     */
+    public void setBackgroundStrokeWidth(
+            @FloatRange(from = 0f, to = Float.MAX_VALUE) final float width) {
+        CircularProgressDrawable.checkStrokeWidth(width);
+        mBackgroundStrokePaint.setStrokeWidth(width);
+        invalidateCellGeometry();
+        invalidate();
+    }
+
+    /**
+     * Animation clock, or {@code null} if the default one is used
+     */
+    @Nullable
+    public AnimationClock getAnimationClock() {
+        return mAnimationClock;
+    }
+
+    /**
+     * Animation clock, that drives all ring animations, or {@code null} to use
+     * the default (display frame) clock
+     *
+     * @see CircularProgressBar#setAnimationClock(AnimationClock)
+     */
+    public void setAnimationClock(@Nullable final AnimationClock clock) {
+        if (mFrameCallbackRegistered) {
+            getAnimationClockInternal().removeCallback(mFrameCallback);
+            mFrameCallbackRegistered = false;
+        }
+        mAnimationClock = clock;
+        updateFrameCallback();
+    }
+
+    @Override
+    public void onVisibilityAggregated(final boolean visible) {
+        super.onVisibilityAggregated(visible);
+        setVisibleInternal(visible);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        setVisibleInternal(true);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        setVisibleInternal(false);
+    }
+
+    @Override
+    protected void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
+        final int columnCount = mColumnCount;
+        final int defaultWidth =
+                Math.max(getSuggestedMinimumWidth(), mDefaultCellSize * columnCount);
+        final int width = getMeasuredSize(widthMeasureSpec, defaultWidth);
+        final int rowCount = (mSlotCount + columnCount - 1) / columnCount;
+        final int defaultHeight =
+                Math.max(getSuggestedMinimumHeight(), width / columnCount * rowCount);
+        setMeasuredDimension(width, getMeasuredSize(heightMeasureSpec, defaultHeight));
+    }
+
+    @Override
+    protected void onSizeChanged(final int width, final int height, final int oldWidth,
+            final int oldHeight) {
+        invalidateCellGeometry();
+    }
+
+    @Override
+    protected void onDraw(final Canvas canvas) {
+        final int cellSize = mCellSize;
+        final int slotCount = mSlotCount;
+        if (cellSize <= 0 || slotCount == 0) {
+            return;
+        }
+        final ArcGeometry geometry = mGeometry;
+        final RectF rect = mDrawRect;
+        final Paint foregroundPaint = mForegroundStrokePaint;
+        final float left = geometry.getLeft();
+        final float top = geometry.getTop();
+        final float right = geometry.getRight();
+        final float bottom = geometry.getBottom();
+        final int columnCount = mColumnCount;
+        // Only rows that intersect the clip bounds are drawn
+        int firstSlot = 0;
+        int lastSlot = slotCount - 1;
+        final Rect clipBounds = mClipBounds;
+        if (canvas.getClipBounds(clipBounds)) {
+            firstSlot = Math.max(clipBounds.top / cellSize, 0) * columnCount;
+            lastSlot = Math.min((clipBounds.bottom / cellSize + 1) * columnCount, slotCount) - 1;
+        }
+        for (int i = firstSlot; i <= lastSlot; i++) {
+            final float dx = (i % columnCount) * cellSize;
+            final float dy = (i / columnCount) * cellSize;
+            rect.set(left + dx, top + dy, right + dx, bottom + dy);
+            if (mDrawBackgroundStroke) {
+                canvas.drawOval(rect, mBackgroundStrokePaint);
+            }
+            if (mIndeterminate[i]) {
+                geometry.computeIndeterminateArc(mIndeterminateStartAngle,
+                        mIndeterminateSweepAngle, mIndeterminateOffsetAngle,
+                        mIndeterminateMinimumAngle, mIndeterminateGrowMode);
+            } else {
+                geometry.computeDeterminateArc(mStartAngle, mDisplayedProgress[i], mMaximum[i]);
+            }
+            foregroundPaint.setColor(mColors[i]);
+            canvas.drawArc(rect, geometry.getArcStartAngle(), geometry.getArcSweepAngle(), false,
+                    foregroundPaint);
+        }
+    }
+
+    private void setVisibleInternal(final boolean visible) {
+        mVisible = visible;
+        if (!visible) {
+            endProgressAnimations();
+        }
+        updateFrameCallback();
+    }
+
+    private void updateFrameCallback() {
+        final boolean running = mVisible && (mAnimatingCount > 0 || mIndeterminateCount > 0);
+        if (running != mFrameCallbackRegistered) {
+            mFrameCallbackRegistered = running;
+            if (running) {
+                getAnimationClockInternal().addCallback(mFrameCallback);
+            } else {
+                getAnimationClockInternal().removeCallback(mFrameCallback);
+            }
+        }
+    }
+
+    private void endProgressAnimations() {
+        if (mAnimatingCount == 0) {
+            return;
+        }
+        final boolean[] animating = mAnimating;
+        for (int i = 0, count = mSlotCount; i < count; i++) {
+            if (animating[i]) {
+                animating[i] = false;
+                mDisplayedProgress[i] = mProgress[i];
+            }
+        }
+        mAnimatingCount = 0;
+        updateFrameCallback();
+        invalidate();
+    }
+
+    private void invalidateCellGeometry() {
+        final int columnCount = mColumnCount;
+        final int cellSize = columnCount > 0 ? getWidth() / columnCount : 0;
+        mCellSize = cellSize;
+        final float thickness;
+        if (mDrawBackgroundStroke) {
+            thickness = Math.max(mForegroundStrokePaint.getStrokeWidth(),
+                    mBackgroundStrokePaint.getStrokeWidth());
+        } else {
+            thickness = mForegroundStrokePaint.getStrokeWidth();
+        }
+        // All cells share the same geometry, offset by the cell position on draw
+        final ArcGeometry geometry = mGeometry;
+        geometry.setBounds(0f, 0f, cellSize, cellSize, thickness);
+        final Paint.Cap cap = mForegroundStrokePaint.getStrokeCap();
+        geometry.setCap(cap == Paint.Cap.ROUND || cap == Paint.Cap.SQUARE,
+                mForegroundStrokePaint.getStrokeWidth());
+    }
+
+    private void updateFrame(final long time) {
+        if (mIndeterminateCount > 0) {
+            // Indeterminate rings are phase-locked to the clock time base
+            final ArcGeometry geometry = mGeometry;
+            final float minimumAngle = mIndeterminateMinimumAngle;
+            geometry.computeIndeterminateFrame(time, mIndeterminateRotationAnimationDuration,
+                    mIndeterminateSweepAnimationDuration, minimumAngle, false, 0f);
+            mIndeterminateStartAngle = 360f * geometry.getRotationFraction();
+            mIndeterminateSweepAngle = (360f - minimumAngle * 2f) *
+                    mIndeterminateSweepAnimationInterpolator
+                            .getInterpolation(geometry.getSweepFraction());
+            mIndeterminateGrowMode = geometry.isGrowMode();
+            mIndeterminateOffsetAngle = geometry.getOffsetAngle();
+        }
+        if (mAnimatingCount > 0) {
+            final long duration =
+                    (long) (mProgressAnimationDuration * FrameClock.getDurationScale());
+            final boolean[] animating = mAnimating;
+            final long[] startTime = mAnimationStartTime;
+            final float[] startProgress = mAnimationStartProgress;
+            final float[] progress = mProgress;
+            final float[] displayedProgress = mDisplayedProgress;
+            int animatingCount = mAnimatingCount;
+            for (int i = 0, count = mSlotCount; i < count && animatingCount > 0; i++) {
+                if (!animating[i]) {
+                    continue;
+                }
+                if (startTime[i] < 0L) {
+                    startTime[i] = time;
+                }
+                final long elapsed = time - startTime[i];
+                if (duration <= 0L || elapsed >= duration) {
+                    animating[i] = false;
+                    mAnimatingCount--;
+                    displayedProgress[i] = progress[i];
+                } else {
+                    final float fraction = mProgressAnimationInterpolator
+                            .getInterpolation((float) elapsed / duration);
+                    displayedProgress[i] =
+                            startProgress[i] + (progress[i] - startProgress[i]) * fraction;
+                }
+                animatingCount--;
+            }
+        }
+        invalidate();
+        updateFrameCallback();
+    }
+
+    @NonNull
+    private AnimationClock getAnimationClockInternal() {
+        final AnimationClock clock = mAnimationClock;
+        return clock != null ? clock : FrameClock.getInstance();
+    }
+
+    private void checkSlot(final int slot) {
+        if (slot < 0 || slot >= mSlotCount) {
+            throw new IllegalArgumentException("Slot index is out of bounds");
+        }
+    }
+
+    private void initialize(@NonNull final Context context,
+            @Nullable final AttributeSet attributeSet, @AttrRes final int defStyleAttr,
+            @StyleRes final int defStyleRes) {
+        final float density = context.getResources().getDisplayMetrics().density;
+        mDefaultCellSize = Math.round(CircularProgressDrawable.DEFAULT_SIZE_DP * density);
+        mColumnCount = DEFAULT_COLUMN_COUNT;
+        mStartAngle = CircularProgressDrawable.DEFAULT_START_ANGLE;
+        mIndeterminateMinimumAngle = CircularProgressDrawable.DEFAULT_INDETERMINATE_MINIMUM_ANGLE;
+        mProgressAnimationDuration = CircularProgressDrawable.DEFAULT_PROGRESS_ANIMATION_DURATION;
+        mIndeterminateRotationAnimationDuration =
+                CircularProgressDrawable.DEFAULT_INDETERMINATE_ROTATION_ANIMATION_DURATION;
+        mIndeterminateSweepAnimationDuration =
+                CircularProgressDrawable.DEFAULT_INDETERMINATE_SWEEP_ANIMATION_DURATION;
+        mAnimateProgress = CircularProgressDrawable.DEFAULT_ANIMATE_PROGRESS;
+        mDrawBackgroundStroke = CircularProgressDrawable.DEFAULT_DRAW_BACKGROUND_STROKE;
+        mForegroundStrokePaint.setStyle(Paint.Style.STROKE);
+        mForegroundStrokePaint.setStrokeWidth(
+                Math.round(CircularProgressDrawable.DEFAULT_FOREGROUND_STROKE_WIDTH_DP * density));
+        mForegroundStrokePaint.setStrokeCap(Paint.Cap.BUTT);
+        mBackgroundStrokePaint.setStyle(Paint.Style.STROKE);
+        mBackgroundStrokePaint.setColor(CircularProgressDrawable.DEFAULT_BACKGROUND_STROKE_COLOR);
+        mBackgroundStrokePaint.setStrokeWidth(
+                Math.round(CircularProgressDrawable.DEFAULT_BACKGROUND_STROKE_WIDTH_DP * density));
+        if (attributeSet != null) {
+            TypedArray attributes = null;
+            try {
+                attributes = context.getTheme()
+                        .obtainStyledAttributes(attributeSet, R.styleable.CircularProgressGrid,
+                                defStyleAttr, defStyleRes);
+                setColumnCount(attributes
+                        .getInteger(R.styleable.CircularProgressGrid_gridColumnCount,
+                                DEFAULT_COLUMN_COUNT));
+                setSlotCount(attributes
+                        .getInteger(R.styleable.CircularProgressGrid_gridSlotCount, 0));
+                setStartAngle(attributes.getFloat(R.styleable.CircularProgressGrid_startAngle,
+                        CircularProgressDrawable.DEFAULT_START_ANGLE));
+                setIndeterminateMinimumAngle(attributes
+                        .getFloat(R.styleable.CircularProgressGrid_indeterminateMinimumAngle,
+                                CircularProgressDrawable.DEFAULT_INDETERMINATE_MINIMUM_ANGLE));
+                setAnimateProgress(attributes
+                        .getBoolean(R.styleable.CircularProgressGrid_animateProgress,
+                                CircularProgressDrawable.DEFAULT_ANIMATE_PROGRESS));
+                setProgressAnimationDuration(attributes
+                        .getInteger(R.styleable.CircularProgressGrid_progressAnimationDuration,
+                                CircularProgressDrawable.DEFAULT_PROGRESS_ANIMATION_DURATION));
+                setIndeterminateRotationAnimationDuration(attributes.getInteger(
+                        R.styleable.CircularProgressGrid_indeterminateRotationAnimationDuration,
+                        (int) mIndeterminateRotationAnimationDuration));
+                setIndeterminateSweepAnimationDuration(attributes.getInteger(
+                        R.styleable.CircularProgressGrid_indeterminateSweepAnimationDuration,
+                        (int) mIndeterminateSweepAnimationDuration));
+                setForegroundStrokeWidth(attributes
+                        .getDimension(R.styleable.CircularProgressGrid_foregroundStrokeWidth,
+                                mForegroundStrokePaint.getStrokeWidth()));
+                setForegroundStrokeCap(CircularProgressBar.getStrokeCap(attributes
+                        .getInt(R.styleable.CircularProgressGrid_foregroundStrokeCap, 0)));
+                setDrawBackgroundStroke(attributes
+                        .getBoolean(R.styleable.CircularProgressGrid_drawBackgroundStroke,
+                                CircularProgressDrawable.DEFAULT_DRAW_BACKGROUND_STROKE));
+                setBackgroundStrokeColor(attributes
+                        .getColor(R.styleable.CircularProgressGrid_backgroundStrokeColor,
+                                CircularProgressDrawable.DEFAULT_BACKGROUND_STROKE_COLOR));
+                setBackgroundStrokeWidth(attributes
+                        .getDimension(R.styleable.CircularProgressGrid_backgroundStrokeWidth,
+                                mBackgroundStrokePaint.getStrokeWidth()));
+            } finally {
+                if (attributes != null) {
+                    attributes.recycle();
+                }
+            }
+        }
+    }
+
+    @NonNull
+    private static float[] copyOf(@NonNull final float[] array, final int length) {
+        final float[] copy = new float[length];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+        return copy;
+    }
+
+    private static int getMeasuredSize(final int measureSpec, final int defaultSize) {
+        final int size = MeasureSpec.getSize(measureSpec);
+        switch (MeasureSpec.getMode(measureSpec)) {
+            case MeasureSpec.EXACTLY: {
+                return size;
+            }
+            case MeasureSpec.AT_MOST: {
+                return Math.min(defaultSize, size);
+            }
+            case MeasureSpec.UNSPECIFIED:
+            default: {
+                return defaultSize;
+            }
+        }
+    }
+
+    private final class FrameCallback implements AnimationClock.Callback {
+        @Override
+        public void onFrame(final long frameTimeMillis) {
+            updateFrame(frameTimeMillis);
+        }
+    }
+}
@@ -0,0 +1,460 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.LruCache;
+
+import androidx.annotation.AnyThread;
+import androidx.annotation.ColorInt;
+import androidx.annotation.FloatRange;
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Px;
+
+/**
+ * Renders progress rings into bitmaps from any thread, for places where views can't be used,
+ * such as notifications and app widgets
+ * <p>
+ * Progress is quantized to a number of levels, rendered bitmaps are cached by size, style
+ * and progress level, so repeated progress updates at the same level don't rasterize
+ * the ring again. Only determinate progress is rendered.
+ */
+@AnyThread
+public final class CircularProgressRenderer {
+    /**
+     * Default number of progress levels
+     */
+    public static final int DEFAULT_LEVELS = 100;
+
+    /**
+     * Default bitmap cache size (in bytes)
+     */
+    public static final int DEFAULT_CACHE_SIZE = 4 * 1024 * 1024;
+    private final LruCache<Key, Bitmap> mCache;
+    private final int mLevels;
+    private int mForegroundStrokeColor;
+    private int mBackgroundStrokeColor;
+    private float mForegroundStrokeWidth;
+    private float mBackgroundStrokeWidth;
+    private float mStartAngle;
+    private Paint.Cap mForegroundStrokeCap;
+    private boolean mDrawBackgroundStroke;
+    private Style mStyle;
+
+    /**
+     * Renderer with default number of levels and cache size, and default
+     * {@link CircularProgressBar} style
+     */
+    public CircularProgressRenderer(@NonNull final Context context) {
+        this(context, DEFAULT_LEVELS, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Renderer with default {@link CircularProgressBar} style
+     *
+     * @param levels    Number of progress levels, rendered progress is rounded to the nearest
+     *                  level, bitmaps of the same level are shared
+     * @param cacheSize Bitmap cache size (in bytes), {@code 0} to disable caching
+     */
+    public CircularProgressRenderer(@NonNull final Context context,
+            @IntRange(from = 1) final int levels, @IntRange(from = 0) final int cacheSize) {
+        if (levels < 1) {
+            throw new IllegalArgumentException("Number of levels should be positive");
+        }
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size can't be negative");
+        }
+        mLevels = levels;
+        mCache = cacheSize > 0 ? new BitmapCache(cacheSize) : null;
+        final float density = context.getResources().getDisplayMetrics().density;
+        mForegroundStrokeColor = CircularProgressDrawable.DEFAULT_FOREGROUND_STROKE_COLOR;
+        mBackgroundStrokeColor = CircularProgressDrawable.DEFAULT_BACKGROUND_STROKE_COLOR;
+        mForegroundStrokeWidth =
+                Math.round(CircularProgressDrawable.DEFAULT_FOREGROUND_STROKE_WIDTH_DP * density);
+        mBackgroundStrokeWidth =
+                Math.round(CircularProgressDrawable.DEFAULT_BACKGROUND_STROKE_WIDTH_DP * density);
+        mStartAngle = CircularProgressDrawable.DEFAULT_START_ANGLE;
+        mForegroundStrokeCap = Paint.Cap.BUTT;
+        mDrawBackgroundStroke = CircularProgressDrawable.DEFAULT_DRAW_BACKGROUND_STROKE;
+    }
+
+    /**
+     * Number of progress levels
+     */
+    public int getLevels() {
+        return mLevels;
+    }
+
+    /**
+     * Copy stroke colors, widths and cap, start angle and background stroke visibility
+     * of the specified progress bar, should be called on the main thread
+     */
+    public synchronized void setStyle(@NonNull final CircularProgressBar progressBar) {
+        mForegroundStrokeColor = progressBar.getForegroundStrokeColor();
+        mBackgroundStrokeColor = progressBar.getBackgroundStrokeColor();
+        mForegroundStrokeWidth = progressBar.getForegroundStrokeWidth();
+        mBackgroundStrokeWidth = progressBar.getBackgroundStrokeWidth();
+        mForegroundStrokeCap = progressBar.getForegroundStrokeCap();
+        mStartAngle = progressBar.getStartAngle();
+        mDrawBackgroundStroke = progressBar.isDrawBackgroundStroke();
+        mStyle = null;
+    }
+
+    /**
+     * Foreground stroke color
+     */
+    @ColorInt
+    public synchronized int getForegroundStrokeColor() {
+        return mForegroundStrokeColor;
+    }
+
+    /**
+     * Foreground stroke color
+     */
+    public synchronized void setForegroundStrokeColor(@ColorInt final int color) {
+        mForegroundStrokeColor = color;
+        mStyle = null;
+    }
+
+    /**
+     * Background stroke color
+     */
+    @ColorInt
+    public synchronized int getBackgroundStrokeColor() {
+        return mBackgroundStrokeColor;
+    }
+
+    /**
+     * Background stroke color
+     */
+    public synchronized void setBackgroundStrokeColor(@ColorInt final int color) {
+        mBackgroundStrokeColor = color;
+        mStyle = null;
+    }
+
+    /**
+     * Foreground stroke width (in pixels)
+     */
+    @FloatRange(from = 0f, to = Float.MAX_VALUE)
+    public synchronized float getForegroundStrokeWidth() {
+        return mForegroundStrokeWidth;
+    }
+
+    /**
+     * Foreground stroke width (in pixels)
+     */
+    public synchronized void setForegroundStrokeWidth(
+            @FloatRange(from = 0f, to = Float.MAX_VALUE) final float width) {
+        CircularProgressDrawable.checkStrokeWidth(width);
+        mForegroundStrokeWidth = width;
+        mStyle = null;
+    }
+
+    /**
+     * Background stroke width (in pixels)
+     */
+    @FloatRange(from = 0f, to = Float.MAX_VALUE)
+    public synchronized float getBackgroundStrokeWidth() {
+        return mBackgroundStrokeWidth;
+    }
+
+    /**
+     * Background stroke width (in pixels)
+     */
+    public synchronized void setBackgroundStrokeWidth(
+            @FloatRange(from = 0f, to = Float.MAX_VALUE) final float width) {
+        CircularProgressDrawable.checkStrokeWidth(width);
+        mBackgroundStrokeWidth = width;
+        mStyle = null;
+    }
+
+    /**
+     * Foreground stroke cap
+     */
+    @NonNull
+    public synchronized Paint.Cap getForegroundStrokeCap() {
+        return mForegroundStrokeCap;
+    }
+
+    /**
+     * Foreground stroke cap
+     */
+    public synchronized void setForegroundStrokeCap(@NonNull final Paint.Cap cap) {
+        //noinspection ConstantConditions
+        if (cap == null) {
+            throw new IllegalArgumentException("Cap can't be null");
+        }
+        mForegroundStrokeCap = cap;
+        mStyle = null;
+    }
+
+    /**
+     * Start angle, between -360 and 360 degrees
+     */
+    @FloatRange(from = -360f, to = 360f)
+    public synchronized float getStartAngle() {
+        return mStartAngle;
+    }
+
+    /**
+     * Start angle, between -360 and 360 degrees
+     */
+    public synchronized void setStartAngle(
+            @FloatRange(from = -360f, to = 360f) final float angle) {
+        CircularProgressDrawable.checkStartAngle(angle);
+        mStartAngle = angle;
+        mStyle = null;
+    }
+
+    /**
+     * Whether to draw background stroke
+     */
+    public synchronized boolean isDrawBackgroundStroke() {
+        return mDrawBackgroundStroke;
+    }
+
+    /**
+     * Whether to draw background stroke
+     */
+    public synchronized void setDrawBackgroundStroke(final boolean draw) {
+        mDrawBackgroundStroke = draw;
+        mStyle = null;
+    }
+
+    /**
+     * Render progress ring of the specified size, progress is rounded to the nearest level
+     * <p>
+     * Returned bitmap may be shared with other callers through the cache,
+     * so it shouldn't be modified or recycled
+     *
+     * @param size     Bitmap width and height (in pixels)
+     * @param progress Progress value
+     * @param maximum  Maximum progress value
+     * @return Progress ring bitmap
+     */
+    @NonNull
+    public Bitmap render(@Px @IntRange(from = 1) final int size, final float progress,
+            final float maximum) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size should be positive");
+        }
+        final int levels = mLevels;
+        final int level = getLevel(progress, maximum, levels);
+        final Style style = getStyle();
+        final LruCache<Key, Bitmap> cache = mCache;
+        if (cache == null) {
+            return renderLevel(style, size, level, levels);
+        }
+        final Key key = new Key(style, size, level);
+        Bitmap bitmap = cache.get(key);
+        if (bitmap == null) {
+            bitmap = renderLevel(style, size, level, levels);
+            cache.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Draw progress ring into the specified bitmap, over its content,
+     * progress isn't quantized and the bitmap isn't cached
+     *
+     * @param bitmap   Mutable bitmap
+     * @param progress Progress value
+     * @param maximum  Maximum progress value
+     */
+    public void render(@NonNull final Bitmap bitmap, final float progress,
+            final float maximum) {
+        draw(new Canvas(bitmap), getStyle(), bitmap.getWidth(), bitmap.getHeight(),
+                getFraction(progress, maximum));
+    }
+
+    /**
+     * Remove all cached bitmaps
+     */
+    public void clearCache() {
+        final LruCache<Key, Bitmap> cache = mCache;
+        if (cache != null) {
+            cache.evictAll();
+        }
+    }
+
+    @NonNull
+    private synchronized Style getStyle() {
+        Style style = mStyle;
+        if (style == null) {
+            style = new Style(mForegroundStrokeColor, mBackgroundStrokeColor,
+                    mForegroundStrokeWidth, mBackgroundStrokeWidth, mStartAngle,
+                    mForegroundStrokeCap, mDrawBackgroundStroke);
+            mStyle = style;
+        }
+        return style;
+    }
+
+    private static float getFraction(final float progress, final float maximum) {
+        if (maximum == 0f) {
+            return 0f;
+        }
+        return Math.max(Math.min(progress / maximum, 1f), 0f);
+    }
+
+    private static int getLevel(final float progress, final float maximum, final int levels) {
+        return Math.round(getFraction(progress, maximum) * levels);
+    }
+
+    @NonNull
+    private static Bitmap renderLevel(@NonNull final Style style, final int size,
+            final int level, final int levels) {
+        final Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        draw(new Canvas(bitmap), style, size, size, (float) level / levels);
+        return bitmap;
+    }
+
+    private static void draw(@NonNull final Canvas canvas, @NonNull final Style style,
+            final int width, final int height, final float fraction) {
+        final float thickness;
+        if (style.mDrawBackgroundStroke) {
+            thickness = Math.max(style.mForegroundStrokeWidth, style.mBackgroundStrokeWidth);
+        } else {
+            thickness = style.mForegroundStrokeWidth;
+        }
+        final ArcGeometry geometry = new ArcGeometry();
+        geometry.setBounds(0f, 0f, width, height, thickness);
+        final RectF rect = new RectF(geometry.getLeft(), geometry.getTop(), geometry.getRight(),
+                geometry.getBottom());
+        final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.STROKE);
+        if (style.mDrawBackgroundStroke) {
+            paint.setColor(style.mBackgroundStrokeColor);
+            paint.setStrokeWidth(style.mBackgroundStrokeWidth);
+            canvas.drawOval(rect, paint);
+        }
+        final Paint.Cap cap = style.mForegroundStrokeCap;
+        geometry.setCap(cap == Paint.Cap.ROUND || cap == Paint.Cap.SQUARE,
+                style.mForegroundStrokeWidth);
+        geometry.computeDeterminateArc(style.mStartAngle, fraction, 1f);
+        paint.setColor(style.mForegroundStrokeColor);
+        paint.setStrokeWidth(style.mForegroundStrokeWidth);
+        paint.setStrokeCap(cap);
+        canvas.drawArc(rect, geometry.getArcStartAngle(), geometry.getArcSweepAngle(), false,
+                paint);
+    }
+
+    private static final class BitmapCache extends LruCache<Key, Bitmap> {
+        BitmapCache(final int maxSize) {
+            super(maxSize);
+        }
+
+        @Override
+        protected int sizeOf(@NonNull final Key key, @NonNull final Bitmap value) {
+            return value.getByteCount();
+        }
+    }
+
+    private static final class Style {
+        private final int mForegroundStrokeColor;
+        private final int mBackgroundStrokeColor;
+        private final float mForegroundStrokeWidth;
+        private final float mBackgroundStrokeWidth;
+        private final float mStartAngle;
+        private final Paint.Cap mForegroundStrokeCap;
+        private final boolean mDrawBackgroundStroke;
+
+        Style(final int foregroundStrokeColor, final int backgroundStrokeColor,
+                final float foregroundStrokeWidth, final float backgroundStrokeWidth,
+                final float startAngle, @NonNull final Paint.Cap foregroundStrokeCap,
+                final boolean drawBackgroundStroke) {
+            mForegroundStrokeColor = foregroundStrokeColor;
+            mBackgroundStrokeColor = backgroundStrokeColor;
+            mForegroundStrokeWidth = foregroundStrokeWidth;
+            mBackgroundStrokeWidth = backgroundStrokeWidth;
+            mStartAngle = startAngle;
+            mForegroundStrokeCap = foregroundStrokeCap;
+            mDrawBackgroundStroke = drawBackgroundStroke;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Style)) {
+                return false;
+            }
+            final Style other = (Style) obj;
+            return mForegroundStrokeColor == other.mForegroundStrokeColor &&
+                    mBackgroundStrokeColor == other.mBackgroundStrokeColor &&
+                    Float.compare(mForegroundStrokeWidth, other.mForegroundStrokeWidth) == 0 &&
+                    Float.compare(mBackgroundStrokeWidth, other.mBackgroundStrokeWidth) == 0 &&
+                    Float.compare(mStartAngle, other.mStartAngle) == 0 &&
+                    mForegroundStrokeCap == other.mForegroundStrokeCap &&
+                    mDrawBackgroundStroke == other.mDrawBackgroundStroke;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = mForegroundStrokeColor;
+            hash = hash * 31 + mBackgroundStrokeColor;
+            hash = hash * 31 + Float.floatToIntBits(mForegroundStrokeWidth);
+            hash = hash * 31 + Float.floatToIntBits(mBackgroundStrokeWidth);
+            hash = hash * 31 + Float.floatToIntBits(mStartAngle);
+            hash = hash * 31 + mForegroundStrokeCap.hashCode();
+            hash = hash * 31 + (mDrawBackgroundStroke ? 1 : 0);
+            return hash;
+        }
+    }
+
+    private static final class Key {
+        private final Style mStyle;
+        private final int mSize;
+        private final int mLevel;
+
+        Key(@NonNull final Style style, final int size, final int level) {
+            mStyle = style;
+            mSize = size;
+            mLevel = level;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return mSize == other.mSize && mLevel == other.mLevel && mStyle.equals(other.mStyle);
+        }
+
+        @Override
+        public int hashCode() {
+            return (mStyle.hashCode() * 31 + mSize) * 31 + mLevel;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import android.animation.TimeInterpolator;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Float value animation with primitive state, doesn't allocate while running,
+ * should be driven by {@link #update(long)} calls with frame time
+ */
+final class FloatAnimation {
+    private TimeInterpolator mInterpolator;
+    private long mDuration;
+    private long mScaledDuration;
+    private long mStartTime;
+    private float mStartValue;
+    private float mEndValue;
+    private float mValue;
+    private boolean mRunning;
+
+    FloatAnimation(@NonNull final TimeInterpolator interpolator, final long duration) {
+        mInterpolator = interpolator;
+        mDuration = duration;
+    }
+
+    @NonNull
+    TimeInterpolator getInterpolator() {
+        return mInterpolator;
+    }
+
+    void setInterpolator(@NonNull final TimeInterpolator interpolator) {
+        mInterpolator = interpolator;
+    }
+
+    long getDuration() {
+        return mDuration;
+    }
+
+    void setDuration(final long duration) {
+        mDuration = duration;
+    }
+
+    /**
+     * Current animated value
+     */
+    float getValue() {
+        return mValue;
+    }
+
+    /**
+     * Target value of the current (or last) animation
+     */
+    float getEndValue() {
+        return mEndValue;
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * Start animation, start time will be taken from the first frame
+     */
+    void start(final float startValue, final float endValue) {
+        mStartValue = startValue;
+        mEndValue = endValue;
+        mValue = startValue;
+        mStartTime = -1L;
+        mScaledDuration = (long) (mDuration * FrameClock.getDurationScale());
+        mRunning = true;
+    }
+
+    /**
+     * Update animated value
+     *
+     * @param time Frame time (in milliseconds)
+     * @return {@code true} if animation is still running after this frame
+     */
+    boolean update(final long time) {
+        if (!mRunning) {
+            return false;
+        }
+        if (mStartTime < 0L) {
+            mStartTime = time;
+        }
+        final long duration = mScaledDuration;
+        final long elapsed = time - mStartTime;
+        if (duration <= 0L || elapsed >= duration) {
+            end();
+            return false;
+        }
+        final float fraction = mInterpolator.getInterpolation((float) elapsed / duration);
+        mValue = mStartValue + (mEndValue - mStartValue) * fraction;
+        return true;
+    }
+
+    /**
+     * Stop animation and jump to the end value
+     */
+    void end() {
+        mValue = mEndValue;
+        mRunning = false;
+    }
+
+    /**
+     * Stop animation at the current value
+     */
+    void cancel() {
+        mRunning = false;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.animation.AnimationUtils;
+
+import java.util.ArrayList;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+/**
+ * Process-wide frame clock, dispatches one frame to all registered callbacks
+ * from a single {@link Choreographer} callback (or a main thread {@link Handler}
+ * on devices without {@link Choreographer}).
+ * <p>
+ * Should only be used from the main thread.
+ */
+final class FrameClock implements AnimationClock {
+    private static FrameClock sInstance;
+    private final ArrayList<Callback> mCallbacks = new ArrayList<>();
+    private final Driver mDriver;
+    private boolean mScheduled;
+    private boolean mDispatching;
+    private boolean mHasRemovedCallbacks;
+
+    private FrameClock() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mDriver = new ChoreographerDriver();
+        } else {
+            mDriver = new HandlerDriver();
+        }
+    }
+
+    /**
+     * Shared frame clock instance
+     */
+    @NonNull
+    static FrameClock getInstance() {
+        FrameClock instance = sInstance;
+        if (instance == null) {
+            instance = new FrameClock();
+            sInstance = instance;
+        }
+        return instance;
+    }
+
+    /**
+     * Current animation time (in milliseconds)
+     */
+    static long now() {
+        return AnimationUtils.currentAnimationTimeMillis();
+    }
+
+    /**
+     * Animator duration scale, that is set in developer options
+     */
+    static float getDurationScale() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            return ValueAnimator.getDurationScale();
+        } else {
+            return 1f;
+        }
+    }
+
+    /**
+     * Whether animators are enabled in the system settings
+     */
+    static boolean areAnimatorsEnabled() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            return ValueAnimator.areAnimatorsEnabled();
+        } else {
+            return getDurationScale() != 0f;
+        }
+    }
+
+    @Override
+    public long getTime() {
+        return now();
+    }
+
+    @Override
+    public void addCallback(@NonNull final Callback callback) {
+        if (mCallbacks.contains(callback)) {
+            return;
+        }
+        mCallbacks.add(callback);
+        scheduleFrame();
+    }
+
+    @Override
+    public void removeCallback(@NonNull final Callback callback) {
+        final int index = mCallbacks.indexOf(callback);
+        if (index < 0) {
+            return;
+        }
+        if (mDispatching) {
+            mCallbacks.set(index, null);
+            mHasRemovedCallbacks = true;
+        } else {
+            mCallbacks.remove(index);
+        }
+    }
+
+    /**
+     * Whether specified callback is registered
+     */
+    boolean hasCallback(@NonNull final Callback callback) {
+        return mCallbacks.contains(callback);
+    }
+
+    private void scheduleFrame() {
+        if (!mScheduled && !mCallbacks.isEmpty()) {
+            mScheduled = true;
+            mDriver.schedule();
+        }
+    }
+
+    private void dispatchFrame(final long frameTimeMillis) {
+        mScheduled = false;
+        final ArrayList<Callback> callbacks = mCallbacks;
+        mDispatching = true;
+        try {
+            // Callbacks added during dispatch will receive the next frame
+            final int size = callbacks.size();
+            for (int i = 0; i < size; i++) {
+                final Callback callback = callbacks.get(i);
+                if (callback != null) {
+                    callback.onFrame(frameTimeMillis);
+                }
+            }
+        } finally {
+            mDispatching = false;
+        }
+        if (mHasRemovedCallbacks) {
+            mHasRemovedCallbacks = false;
+            for (int i = callbacks.size() - 1; i >= 0; i--) {
+                if (callbacks.get(i) == null) {
+                    callbacks.remove(i);
+                }
+            }
+        }
+        scheduleFrame();
+    }
+
+    private interface Driver {
+
+        void schedule();
+    }
+
+    @RequiresApi(Build.VERSION_CODES.JELLY_BEAN)
+    private final class ChoreographerDriver implements Driver, Choreographer.FrameCallback {
+        private final Choreographer mChoreographer = Choreographer.getInstance();
+
+        @Override
+        public void schedule() {
+            mChoreographer.postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(final long frameTimeNanos) {
+            dispatchFrame(frameTimeNanos / 1000000L);
+        }
+    }
+
+    private final class HandlerDriver implements Driver, Runnable {
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void schedule() {
+            mHandler.postDelayed(this, ValueAnimator.getFrameDelay());
+        }
+
+        @Override
+        public void run() {
+            dispatchFrame(now());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import android.animation.TimeInterpolator;
+
+import java.util.ArrayList;
+import java.util.WeakHashMap;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Interpolator, that linearly interpolates between precomputed samples of another
+ * interpolator, so each evaluation is a single array lookup.
+ * <p>
+ * Tables are shared across all users of the same interpolator and animation duration,
+ * sampled interpolator should be a pure function of its input.
+ */
+final class InterpolatorTable implements TimeInterpolator {
+    private static final int SAMPLE_INTERVAL_MILLIS = 2;
+    private static final int MINIMUM_SAMPLE_COUNT = 64;
+    private static final int MAXIMUM_SAMPLE_COUNT = 1024;
+    private static final WeakHashMap<TimeInterpolator, ArrayList<InterpolatorTable>> sCache =
+            new WeakHashMap<>();
+    private final float[] mSamples;
+    private final int mLastIndex;
+
+    private InterpolatorTable(@NonNull final TimeInterpolator interpolator,
+            final int sampleCount) {
+        final float[] samples = new float[sampleCount];
+        final int lastIndex = sampleCount - 1;
+        for (int i = 0; i < sampleCount; i++) {
+            samples[i] = interpolator.getInterpolation((float) i / lastIndex);
+        }
+        mSamples = samples;
+        mLastIndex = lastIndex;
+    }
+
+    /**
+     * Shared table of the specified interpolator, sampled densely enough
+     * for an animation of the specified duration
+     *
+     * @param duration Animation duration (in milliseconds)
+     */
+    @NonNull
+    static synchronized InterpolatorTable obtain(@NonNull final TimeInterpolator interpolator,
+            final long duration) {
+        if (interpolator instanceof InterpolatorTable) {
+            return (InterpolatorTable) interpolator;
+        }
+        final int sampleCount = (int) Math.max(MINIMUM_SAMPLE_COUNT,
+                Math.min(duration / SAMPLE_INTERVAL_MILLIS + 1L, MAXIMUM_SAMPLE_COUNT));
+        ArrayList<InterpolatorTable> tables = sCache.get(interpolator);
+        if (tables == null) {
+            tables = new ArrayList<>(1);
+            sCache.put(interpolator, tables);
+        }
+        for (int i = 0, size = tables.size(); i < size; i++) {
+            final InterpolatorTable table = tables.get(i);
+            if (table.mSamples.length == sampleCount) {
+                return table;
+            }
+        }
+        final InterpolatorTable table = new InterpolatorTable(interpolator, sampleCount);
+        tables.add(table);
+        return table;
+    }
+
+    @Override
+    public float getInterpolation(final float input) {
+        final float[] samples = mSamples;
+        final int lastIndex = mLastIndex;
+        if (input <= 0f) {
+            return samples[0];
+        }
+        if (input >= 1f) {
+            return samples[lastIndex];
+        }
+        final float position = input * lastIndex;
+        final int index = (int) position;
+        final float start = samples[index];
+        return start + (samples[index + 1] - start) * (position - index);
+    }
+}
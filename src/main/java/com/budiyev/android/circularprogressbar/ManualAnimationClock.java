@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import java.util.ArrayList;
+
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+
+/**
+ * Animation clock, that is stepped manually, frames are dispatched synchronously
+ * on {@link #advance(long)} and {@link #setTime(long)} calls, on the calling thread
+ * (that should be the main thread if the clock is used by progress bars)
+ * <p>
+ * Useful for deterministic tests of progress bar animations without real waits
+ */
+public final class ManualAnimationClock implements AnimationClock {
+    private final ArrayList<Callback> mCallbacks = new ArrayList<>();
+    private long mTime;
+
+    /**
+     * Manual animation clock starting at zero time
+     */
+    public ManualAnimationClock() {
+        this(0L);
+    }
+
+    /**
+     * Manual animation clock starting at the specified time (in milliseconds)
+     */
+    public ManualAnimationClock(final long time) {
+        mTime = time;
+    }
+
+    @Override
+    public long getTime() {
+        return mTime;
+    }
+
+    /**
+     * Set clock time and dispatch a frame
+     *
+     * @param time Time (in milliseconds), can't be less than current time
+     */
+    public void setTime(final long time) {
+        if (time < mTime) {
+            throw new IllegalArgumentException("Clock time can't go backwards");
+        }
+        mTime = time;
+        dispatchFrame();
+    }
+
+    /**
+     * Advance clock time by the specified number of milliseconds and dispatch a frame
+     */
+    public void advance(@IntRange(from = 0) final long millis) {
+        if (millis < 0L) {
+            throw new IllegalArgumentException("Clock time can't go backwards");
+        }
+        setTime(mTime + millis);
+    }
+
+    /**
+     * Advance clock time by the specified number of frames of the specified duration,
+     * dispatching each of them
+     *
+     * @param frameCount    Number of frames
+     * @param frameDuration Frame duration (in milliseconds)
+     */
+    public void advanceFrames(@IntRange(from = 0) final int frameCount,
+            @IntRange(from = 0) final long frameDuration) {
+        for (int i = 0; i < frameCount; i++) {
+            advance(frameDuration);
+        }
+    }
+
+    /**
+     * Whether any callbacks are registered, that is, whether any animations are running
+     */
+    public boolean hasCallbacks() {
+        return !mCallbacks.isEmpty();
+    }
+
+    @Override
+    public void addCallback(@NonNull final Callback callback) {
+        if (!mCallbacks.contains(callback)) {
+            mCallbacks.add(callback);
+        }
+    }
+
+    @Override
+    public void removeCallback(@NonNull final Callback callback) {
+        mCallbacks.remove(callback);
+    }
+
+    private void dispatchFrame() {
+        final long time = mTime;
+        // Callbacks can be added or removed during dispatch
+        final Callback[] callbacks = mCallbacks.toArray(new Callback[0]);
+        for (final Callback callback : callbacks) {
+            if (mCallbacks.contains(callback)) {
+                callback.onFrame(time);
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+import android.os.PowerManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Process-wide battery saver mode state, it's updated by a broadcast receiver,
+ * so it can be read on each frame without binder calls
+ */
+final class PowerSaveMonitor {
+    private static PowerSaveMonitor sInstance;
+    private final PowerManager mPowerManager;
+    private volatile boolean mPowerSaveMode;
+
+    private PowerSaveMonitor(@NonNull final Context context) {
+        mPowerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            context.registerReceiver(new PowerSaveModeReceiver(),
+                    new IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED));
+            updatePowerSaveMode();
+        }
+    }
+
+    /**
+     * Shared power save monitor instance
+     */
+    @NonNull
+    static synchronized PowerSaveMonitor getInstance(@NonNull final Context context) {
+        PowerSaveMonitor instance = sInstance;
+        if (instance == null) {
+            final Context applicationContext = context.getApplicationContext();
+            instance = new PowerSaveMonitor(
+                    applicationContext != null ? applicationContext : context);
+            sInstance = instance;
+        }
+        return instance;
+    }
+
+    /**
+     * Whether battery saver mode is enabled
+     */
+    boolean isPowerSaveMode() {
+        return mPowerSaveMode;
+    }
+
+    private void updatePowerSaveMode() {
+        final PowerManager powerManager = mPowerManager;
+        if (powerManager != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            mPowerSaveMode = powerManager.isPowerSaveMode();
+        }
+    }
+
+    private final class PowerSaveModeReceiver extends BroadcastReceiver {
+        @Override
+        public void onReceive(@Nullable final Context context, @Nullable final Intent intent) {
+            updatePowerSaveMode();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Channel transfers with progress, file data is transferred with
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)} and
+ * {@link FileChannel#transferFrom(ReadableByteChannel, long, long)}, so it isn't copied through
+ * user space buffers when the system supports that; progress is published to
+ * a {@link ProgressSink} after each transferred chunk
+ */
+public final class ProgressChannels {
+    private static final long TRANSFER_CHUNK_SIZE = 1L << 20;
+
+    private ProgressChannels() {
+    }
+
+    /**
+     * Transfer remaining data of the source file channel, starting from its current position,
+     * to the target channel; source channel position isn't changed
+     *
+     * @param source Source file channel
+     * @param target Target channel
+     * @param sink   Progress sink
+     * @return Number of transferred bytes
+     */
+    public static long transfer(@NonNull final FileChannel source,
+            @NonNull final WritableByteChannel target, @NonNull final ProgressSink sink)
+            throws IOException {
+        final long start = source.position();
+        final long total = Math.max(source.size() - start, 0L);
+        long transferred = 0L;
+        while (transferred < total) {
+            final long count = source.transferTo(start + transferred,
+                    Math.min(total - transferred, TRANSFER_CHUNK_SIZE), target);
+            if (count <= 0L) {
+                break;
+            }
+            transferred += count;
+            sink.onProgress(transferred, total);
+        }
+        return transferred;
+    }
+
+    /**
+     * Transfer data from the source channel to the target file channel, starting from
+     * its current position, until the end of the source or until the total number
+     * of bytes is transferred; target channel position isn't changed
+     *
+     * @param source Source channel, should be in blocking mode
+     * @param target Target file channel
+     * @param total  Total number of bytes to transfer, or {@code -1} to transfer
+     *               until the end of the source
+     * @param sink   Progress sink
+     * @return Number of transferred bytes
+     */
+    public static long transfer(@NonNull final ReadableByteChannel source,
+            @NonNull final FileChannel target, final long total,
+            @NonNull final ProgressSink sink) throws IOException {
+        final long start = target.position();
+        long transferred = 0L;
+        while (total < 0L || transferred < total) {
+            final long chunk = total < 0L ? TRANSFER_CHUNK_SIZE :
+                    Math.min(total - transferred, TRANSFER_CHUNK_SIZE);
+            final long count = target.transferFrom(source, start + transferred, chunk);
+            if (count <= 0L) {
+                break;
+            }
+            transferred += count;
+            sink.onProgress(transferred, total);
+        }
+        return transferred;
+    }
+}
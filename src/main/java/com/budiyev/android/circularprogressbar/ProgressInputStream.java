@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Input stream, that counts read (and skipped) bytes and publishes them to a {@link ProgressSink}
+ * <p>
+ * Counting doesn't allocate; progress is published after each read, that returned data,
+ * {@link CircularProgressBar#getProgressSink() progress bar sink} applies it at most
+ * once per animation frame
+ */
+public class ProgressInputStream extends FilterInputStream {
+    private static final int TRANSFER_BUFFER_SIZE = 8192;
+    private final ProgressSink mSink;
+    private final long mTotal;
+    private long mTransferred;
+    private long mMarkTransferred;
+
+    /**
+     * Progress input stream
+     *
+     * @param in    Source input stream
+     * @param total Total number of bytes, that is expected to be read,
+     *              or {@code -1} if it's unknown
+     * @param sink  Progress sink
+     */
+    public ProgressInputStream(@NonNull final InputStream in, final long total,
+            @NonNull final ProgressSink sink) {
+        super(in);
+        //noinspection ConstantConditions
+        if (sink == null) {
+            throw new IllegalArgumentException("Sink can't be null");
+        }
+        mSink = sink;
+        mTotal = total;
+    }
+
+    /**
+     * Number of read and skipped bytes
+     */
+    public long getTransferred() {
+        return mTransferred;
+    }
+
+    /**
+     * Total number of bytes, or {@code -1} if it's unknown
+     */
+    public long getTotal() {
+        return mTotal;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int value = in.read();
+        if (value >= 0) {
+            publish(1L);
+        }
+        return value;
+    }
+
+    @Override
+    public int read(@NonNull final byte[] buffer, final int offset, final int length)
+            throws IOException {
+        final int read = in.read(buffer, offset, length);
+        if (read > 0) {
+            publish(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(final long count) throws IOException {
+        final long skipped = in.skip(count);
+        if (skipped > 0L) {
+            publish(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public synchronized void mark(final int limit) {
+        in.mark(limit);
+        mMarkTransferred = mTransferred;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        in.reset();
+        mTransferred = mMarkTransferred;
+        mSink.onProgress(mTransferred, mTotal);
+    }
+
+    /**
+     * Read all remaining bytes of this stream into the specified output stream,
+     * with a single buffer for the whole transfer
+     *
+     * @return Number of transferred bytes
+     */
+    public long transferTo(@NonNull final OutputStream out) throws IOException {
+        final byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+        long transferred = 0L;
+        for (; ; ) {
+            final int read = in.read(buffer, 0, TRANSFER_BUFFER_SIZE);
+            if (read < 0) {
+                return transferred;
+            }
+            out.write(buffer, 0, read);
+            transferred += read;
+            publish(read);
+        }
+    }
+
+    private void publish(final long count) {
+        final long transferred = mTransferred + count;
+        mTransferred = transferred;
+        mSink.onProgress(transferred, mTotal);
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+/**
+ * Receiver of transfer progress, that is published by {@link ProgressInputStream},
+ * {@link ProgressOutputStream}, {@link ProgressReadableByteChannel},
+ * {@link ProgressWritableByteChannel} and {@link ProgressChannels}
+ * <p>
+ * Progress is published on the transferring thread after each read or write,
+ * so implementations should be cheap and shouldn't block
+ *
+ * @see CircularProgressBar#getProgressSink()
+ */
+public interface ProgressSink {
+
+    /**
+     * Transferred amount changed
+     *
+     * @param transferred Number of transferred bytes
+     * @param total       Total number of bytes, or {@code -1} if it's unknown
+     */
+    void onProgress(long transferred, long total);
+}
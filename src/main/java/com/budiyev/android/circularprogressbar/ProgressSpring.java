@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+/**
+ * Critically damped spring for progress animation, can be retargeted while running,
+ * keeping its current value and velocity; doesn't allocate while running,
+ * should be driven by {@link #update(long, float)} calls with frame time
+ */
+final class ProgressSpring {
+    /**
+     * Natural frequency multiplied by settle time; remaining displacement of the
+     * critically damped spring after settle time is {@code (1 + 6) * e^-6}, about 1.7%
+     */
+    private static final float SETTLE_FACTOR = 6f;
+    private long mSettleDuration;
+    private long mLastTime;
+    private float mFrequency;
+    private float mValue;
+    private float mVelocity;
+    private float mTarget;
+    private boolean mRunning;
+
+    ProgressSpring(final long settleDuration) {
+        mSettleDuration = settleDuration;
+    }
+
+    /**
+     * Approximate time to reach the target from rest (in milliseconds)
+     */
+    long getSettleDuration() {
+        return mSettleDuration;
+    }
+
+    /**
+     * Approximate time to reach the target from rest (in milliseconds)
+     */
+    void setSettleDuration(final long duration) {
+        mSettleDuration = duration;
+    }
+
+    /**
+     * Current animated value
+     */
+    float getValue() {
+        return mValue;
+    }
+
+    /**
+     * Current target value
+     */
+    float getTarget() {
+        return mTarget;
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * Animate to the specified target; if spring is already running, it is retargeted in place,
+     * otherwise it starts from the specified current value at rest
+     */
+    void animateTo(final float currentValue, final float target) {
+        mTarget = target;
+        if (mRunning) {
+            return;
+        }
+        mValue = currentValue;
+        mVelocity = 0f;
+        mLastTime = -1L;
+        final float settleDuration = mSettleDuration * FrameClock.getDurationScale();
+        if (settleDuration > 0f) {
+            mFrequency = SETTLE_FACTOR * 1000f / settleDuration;
+            mRunning = true;
+        } else {
+            end();
+        }
+    }
+
+    /**
+     * Update animated value
+     *
+     * @param time      Frame time (in milliseconds)
+     * @param threshold Distance to the target, below which spring is considered settled
+     * @return {@code true} if spring is still running after this frame
+     */
+    boolean update(final long time, final float threshold) {
+        if (!mRunning) {
+            return false;
+        }
+        final long lastTime = mLastTime;
+        mLastTime = time;
+        if (lastTime < 0L || time <= lastTime) {
+            return true;
+        }
+        // Exact solution of the critically damped spring equation
+        // x(t) = (c1 + c2 * t) * e^(-w * t), relative to the target
+        final float t = (time - lastTime) / 1000f;
+        final float w = mFrequency;
+        final float c1 = mValue - mTarget;
+        final float c2 = mVelocity + w * c1;
+        final float decay = (float) Math.exp(-w * t);
+        final float displacement = (c1 + c2 * t) * decay;
+        final float velocity = (c2 - w * (c1 + c2 * t)) * decay;
+        if (Math.abs(displacement) < threshold && Math.abs(velocity) < threshold * w) {
+            end();
+            return false;
+        }
+        mValue = mTarget + displacement;
+        mVelocity = velocity;
+        return true;
+    }
+
+    /**
+     * Stop spring and jump to the target value
+     */
+    void end() {
+        mValue = mTarget;
+        mVelocity = 0f;
+        mRunning = false;
+    }
+
+    /**
+     * Stop spring at the current value
+     */
+    void cancel() {
+        mVelocity = 0f;
+        mRunning = false;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Writable byte channel, that counts written bytes and publishes them to a {@link ProgressSink}
+ * <p>
+ * Counting doesn't allocate; progress is published after each write, that consumed data,
+ * {@link CircularProgressBar#getProgressSink() progress bar sink} applies it at most
+ * once per animation frame
+ *
+ * @see ProgressChannels
+ */
+public class ProgressWritableByteChannel implements WritableByteChannel {
+    private final WritableByteChannel mChannel;
+    private final ProgressSink mSink;
+    private final long mTotal;
+    private long mTransferred;
+
+    /**
+     * Progress writable byte channel
+     *
+     * @param channel Target channel
+     * @param total   Total number of bytes, that is expected to be written,
+     *                or {@code -1} if it's unknown
+     * @param sink    Progress sink
+     */
+    public ProgressWritableByteChannel(@NonNull final WritableByteChannel channel,
+            final long total, @NonNull final ProgressSink sink) {
+        //noinspection ConstantConditions
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel can't be null");
+        }
+        //noinspection ConstantConditions
+        if (sink == null) {
+            throw new IllegalArgumentException("Sink can't be null");
+        }
+        mChannel = channel;
+        mSink = sink;
+        mTotal = total;
+    }
+
+    /**
+     * Number of written bytes
+     */
+    public long getTransferred() {
+        return mTransferred;
+    }
+
+    /**
+     * Total number of bytes, or {@code -1} if it's unknown
+     */
+    public long getTotal() {
+        return mTotal;
+    }
+
+    @Override
+    public int write(@NonNull final ByteBuffer buffer) throws IOException {
+        final int written = mChannel.write(buffer);
+        if (written > 0) {
+            final long transferred = mTransferred + written;
+            mTransferred = transferred;
+            mSink.onProgress(transferred, mTotal);
+        }
+        return written;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return mChannel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        mChannel.close();
+    }
+}
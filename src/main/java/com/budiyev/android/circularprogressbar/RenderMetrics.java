@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+/**
+ * Rendering metrics snapshot of {@link CircularProgressBar} or {@link CircularProgressDrawable}
+ *
+ * @see CircularProgressBar#setRenderMetricsEnabled(boolean)
+ * @see CircularProgressBar#getRenderMetrics()
+ */
+public final class RenderMetrics {
+    private final long mSamplingTimeMillis;
+    private final long mDrawCount;
+    private final long mTotalDrawTimeNanos;
+    private final long mMaximumDrawTimeNanos;
+    private final long mInvalidationCount;
+    private final long mAnimationFrameCount;
+    private final long mInvalidatedAnimationFrameCount;
+    private final long mDroppedAnimationFrameCount;
+    private final long mInvisibleAnimationTimeMillis;
+
+    RenderMetrics(final long samplingTimeMillis, final long drawCount,
+            final long totalDrawTimeNanos, final long maximumDrawTimeNanos,
+            final long invalidationCount, final long animationFrameCount,
+            final long invalidatedAnimationFrameCount, final long droppedAnimationFrameCount,
+            final long invisibleAnimationTimeMillis) {
+        mSamplingTimeMillis = samplingTimeMillis;
+        mDrawCount = drawCount;
+        mTotalDrawTimeNanos = totalDrawTimeNanos;
+        mMaximumDrawTimeNanos = maximumDrawTimeNanos;
+        mInvalidationCount = invalidationCount;
+        mAnimationFrameCount = animationFrameCount;
+        mInvalidatedAnimationFrameCount = invalidatedAnimationFrameCount;
+        mDroppedAnimationFrameCount = droppedAnimationFrameCount;
+        mInvisibleAnimationTimeMillis = invisibleAnimationTimeMillis;
+    }
+
+    /**
+     * Time since metrics were enabled or reset (in milliseconds)
+     */
+    public long getSamplingTimeMillis() {
+        return mSamplingTimeMillis;
+    }
+
+    /**
+     * Number of draws
+     */
+    public long getDrawCount() {
+        return mDrawCount;
+    }
+
+    /**
+     * Total time spent in draw (in nanoseconds)
+     */
+    public long getTotalDrawTimeNanos() {
+        return mTotalDrawTimeNanos;
+    }
+
+    /**
+     * Average draw time (in nanoseconds)
+     */
+    public long getAverageDrawTimeNanos() {
+        final long drawCount = mDrawCount;
+        return drawCount > 0L ? mTotalDrawTimeNanos / drawCount : 0L;
+    }
+
+    /**
+     * Longest draw time (in nanoseconds)
+     */
+    public long getMaximumDrawTimeNanos() {
+        return mMaximumDrawTimeNanos;
+    }
+
+    /**
+     * Number of invalidations
+     */
+    public long getInvalidationCount() {
+        return mInvalidationCount;
+    }
+
+    /**
+     * Average number of invalidations per second
+     */
+    public float getInvalidationsPerSecond() {
+        final long samplingTime = mSamplingTimeMillis;
+        return samplingTime > 0L ? mInvalidationCount * 1000f / samplingTime : 0f;
+    }
+
+    /**
+     * Number of animation frames delivered to the progress bar
+     */
+    public long getAnimationFrameCount() {
+        return mAnimationFrameCount;
+    }
+
+    /**
+     * Number of delivered animation frames, that invalidated visible progress bar and were drawn;
+     * frames skipped by the target frame rate or delivered while progress bar wasn't visible
+     * aren't counted
+     */
+    public long getDrawnAnimationFrameCount() {
+        return mInvalidatedAnimationFrameCount - mDroppedAnimationFrameCount;
+    }
+
+    /**
+     * Number of delivered animation frames, that invalidated visible progress bar, but were
+     * never drawn, because the next invalidating frame was delivered before draw
+     */
+    public long getDroppedAnimationFrameCount() {
+        return mDroppedAnimationFrameCount;
+    }
+
+    /**
+     * Time spent animating while progress bar wasn't visible (in milliseconds)
+     */
+    public long getInvisibleAnimationTimeMillis() {
+        return mInvisibleAnimationTimeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderMetrics{samplingTimeMillis=" + mSamplingTimeMillis + ", drawCount=" +
+                mDrawCount + ", averageDrawTimeNanos=" + getAverageDrawTimeNanos() +
+                ", maximumDrawTimeNanos=" + mMaximumDrawTimeNanos +
+                ", invalidationsPerSecond=" + getInvalidationsPerSecond() +
+                ", animationFrameCount=" + mAnimationFrameCount +
+                ", droppedAnimationFrameCount=" + mDroppedAnimationFrameCount +
+                ", invisibleAnimationTimeMillis=" + mInvisibleAnimationTimeMillis + "}";
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import android.os.Build;
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Collects {@link RenderMetrics}, exists only while metrics are enabled,
+ * should only be used from the main thread
+ */
+final class RenderMetricsCollector {
+    static final String TRACE_SECTION_DRAW = "CircularProgressBar#draw";
+    static final String TRACE_SECTION_ANIMATION_FRAME = "CircularProgressBar#animationFrame";
+    private long mStartTime;
+    private long mDrawCount;
+    private long mTotalDrawTimeNanos;
+    private long mMaximumDrawTimeNanos;
+    private long mInvalidationCount;
+    private long mAnimationFrameCount;
+    private long mInvalidatedAnimationFrameCount;
+    private long mDroppedAnimationFrameCount;
+    private long mInvisibleAnimationTimeMillis;
+    private long mLastInvisibleTime;
+    private long mAnimationFrameTime;
+    private long mPendingAnimationFrameTime;
+    private boolean mAnimationFrame;
+    private boolean mAnimationFrameVisible;
+    private boolean mAnimationFramePending;
+
+    RenderMetricsCollector() {
+        reset();
+    }
+
+    /**
+     * Begin draw, returns draw start time to be passed to {@link #endDraw(long)}
+     */
+    long beginDraw() {
+        beginSection(TRACE_SECTION_DRAW);
+        return System.nanoTime();
+    }
+
+    void endDraw(final long startTimeNanos) {
+        final long drawTime = System.nanoTime() - startTimeNanos;
+        endSection();
+        mDrawCount++;
+        mTotalDrawTimeNanos += drawTime;
+        if (drawTime > mMaximumDrawTimeNanos) {
+            mMaximumDrawTimeNanos = drawTime;
+        }
+        mAnimationFramePending = false;
+    }
+
+    void onInvalidate() {
+        mInvalidationCount++;
+        if (!mAnimationFrame || !mAnimationFrameVisible) {
+            return;
+        }
+        // Several callbacks of the same frame are counted once
+        final long frameTime = mAnimationFrameTime;
+        if (!mAnimationFramePending || mPendingAnimationFrameTime != frameTime) {
+            if (mAnimationFramePending) {
+                mDroppedAnimationFrameCount++;
+            }
+            mInvalidatedAnimationFrameCount++;
+            mPendingAnimationFrameTime = frameTime;
+            mAnimationFramePending = true;
+        }
+    }
+
+    /**
+     * Begin animation frame, should be followed by {@link #endAnimationFrame()};
+     * frame is counted as dropped only if it invalidated visible progress bar
+     * and wasn't drawn before the next invalidating frame
+     *
+     * @param visible   Whether progress bar is visible
+     * @param frameTime Animation frame time (in milliseconds), that identifies frame
+     *                  for all animation callbacks of the progress bar
+     */
+    void beginAnimationFrame(final boolean visible, final long frameTime) {
+        beginSection(TRACE_SECTION_ANIMATION_FRAME);
+        if (mAnimationFrameCount == 0L || frameTime != mAnimationFrameTime) {
+            final long time = FrameClock.now();
+            final long lastTime = mLastInvisibleTime;
+            if (!visible && lastTime > 0L && time > lastTime) {
+                mInvisibleAnimationTimeMillis += time - lastTime;
+            }
+            mLastInvisibleTime = visible ? 0L : time;
+            mAnimationFrameCount++;
+        }
+        mAnimationFrameTime = frameTime;
+        mAnimationFrameVisible = visible;
+        mAnimationFrame = true;
+    }
+
+    void endAnimationFrame() {
+        mAnimationFrame = false;
+        endSection();
+    }
+
+    @NonNull
+    RenderMetrics snapshot() {
+        // Last delivered frame may still be drawn, so it's not counted as dropped
+        return new RenderMetrics(FrameClock.now() - mStartTime, mDrawCount,
+                mTotalDrawTimeNanos, mMaximumDrawTimeNanos, mInvalidationCount,
+                mAnimationFrameCount, mInvalidatedAnimationFrameCount,
+                mDroppedAnimationFrameCount,
+                mInvisibleAnimationTimeMillis);
+    }
+
+    void reset() {
+        mStartTime = FrameClock.now();
+        mDrawCount = 0L;
+        mTotalDrawTimeNanos = 0L;
+        mMaximumDrawTimeNanos = 0L;
+        mInvalidationCount = 0L;
+        mAnimationFrameCount = 0L;
+        mInvalidatedAnimationFrameCount = 0L;
+        mDroppedAnimationFrameCount = 0L;
+        mInvisibleAnimationTimeMillis = 0L;
+        mLastInvisibleTime = 0L;
+        mAnimationFrameTime = 0L;
+        mPendingAnimationFrameTime = 0L;
+        mAnimationFrame = false;
+        mAnimationFrameVisible = false;
+        mAnimationFramePending = false;
+    }
+
+    private static void beginSection(@NonNull final String name) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(name);
+        }
+    }
+
+    private static void endSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+}
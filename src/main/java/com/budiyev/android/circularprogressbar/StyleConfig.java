@@ -0,0 +1,409 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+
+import androidx.annotation.AttrRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.StyleRes;
+
+/**
+ * Immutable {@link CircularProgressBar} style attribute values, resolved and validated once
+ * <p>
+ * Values, that are resolved only from the theme, default style attribute and default style
+ * resource, are cached per theme, so progress bars, that are inflated without their own
+ * attributes, don't parse the same style again; themes are compared by identity,
+ * cached values of a theme are dropped when a style is applied to it
+ */
+final class StyleConfig {
+    private static final int MAXIMUM_CACHED_CONFIGS_PER_THEME = 8;
+    private static final ArrayList<ThemeConfigs> sCache = new ArrayList<>();
+    private final Configuration mConfiguration;
+    private final int mDefStyleAttr;
+    private final int mDefStyleRes;
+    private final Paint.Cap mForegroundStrokeCap;
+    private final LayerPolicy mLayerPolicy;
+    private final int mForegroundStrokeColor;
+    private final int mBackgroundStrokeColor;
+    private final int mSecondaryProgressStrokeColor;
+    private final float mMaximum;
+    private final float mProgress;
+    private final float mSecondaryProgress;
+    private final float mStartAngle;
+    private final float mIndeterminateMinimumAngle;
+    private final float mIndeterminateTargetFrameRate;
+    private final float mProgressThreshold;
+    private final float mForegroundStrokeWidth;
+    private final float mBackgroundStrokeWidth;
+    private final long mProgressAnimationDuration;
+    private final long mIndeterminateRotationAnimationDuration;
+    private final long mIndeterminateSweepAnimationDuration;
+    private final boolean mIndeterminate;
+    private final boolean mAnimateProgress;
+    private final boolean mProgressSpringAnimation;
+    private final boolean mDrawBackgroundStroke;
+    private final boolean mCacheBackgroundStroke;
+    private final boolean mPrecomputeInterpolators;
+    private final boolean mIndeterminateSharedClock;
+    private final boolean mIndeterminateRenderThread;
+    private final boolean mIndeterminatePowerSaving;
+    private final boolean mPauseWhenClipped;
+
+    private StyleConfig(@NonNull final TypedArray attributes,
+            @NonNull final Configuration configuration,
+            @NonNull final DisplayMetrics displayMetrics, @AttrRes final int defStyleAttr,
+            @StyleRes final int defStyleRes) {
+        mConfiguration = configuration;
+        mDefStyleAttr = defStyleAttr;
+        mDefStyleRes = defStyleRes;
+        mMaximum = attributes.getFloat(R.styleable.CircularProgressBar_maximum,
+                CircularProgressDrawable.DEFAULT_MAXIMUM);
+        mProgress = attributes.getFloat(R.styleable.CircularProgressBar_progress,
+                CircularProgressDrawable.DEFAULT_PROGRESS);
+        mSecondaryProgress = attributes.getFloat(R.styleable.CircularProgressBar_secondaryProgress,
+                CircularProgressDrawable.DEFAULT_SECONDARY_PROGRESS);
+        mStartAngle = attributes.getFloat(R.styleable.CircularProgressBar_startAngle,
+                CircularProgressDrawable.DEFAULT_START_ANGLE);
+        CircularProgressDrawable.checkStartAngle(mStartAngle);
+        mIndeterminateMinimumAngle =
+                attributes.getFloat(R.styleable.CircularProgressBar_indeterminateMinimumAngle,
+                        CircularProgressDrawable.DEFAULT_INDETERMINATE_MINIMUM_ANGLE);
+        CircularProgressDrawable.checkIndeterminateMinimumAngle(mIndeterminateMinimumAngle);
+        mProgressAnimationDuration =
+                attributes.getInteger(R.styleable.CircularProgressBar_progressAnimationDuration,
+                        CircularProgressDrawable.DEFAULT_PROGRESS_ANIMATION_DURATION);
+        CircularProgressDrawable.checkAnimationDuration(mProgressAnimationDuration);
+        mIndeterminateRotationAnimationDuration = attributes.getInteger(
+                R.styleable.CircularProgressBar_indeterminateRotationAnimationDuration,
+                CircularProgressDrawable.DEFAULT_INDETERMINATE_ROTATION_ANIMATION_DURATION);
+        CircularProgressDrawable.checkAnimationDuration(mIndeterminateRotationAnimationDuration);
+        mIndeterminateSweepAnimationDuration = attributes.getInteger(
+                R.styleable.CircularProgressBar_indeterminateSweepAnimationDuration,
+                CircularProgressDrawable.DEFAULT_INDETERMINATE_SWEEP_ANIMATION_DURATION);
+        CircularProgressDrawable.checkAnimationDuration(mIndeterminateSweepAnimationDuration);
+        mForegroundStrokeColor =
+                attributes.getColor(R.styleable.CircularProgressBar_foregroundStrokeColor,
+                        CircularProgressDrawable.DEFAULT_FOREGROUND_STROKE_COLOR);
+        mBackgroundStrokeColor =
+                attributes.getColor(R.styleable.CircularProgressBar_backgroundStrokeColor,
+                        CircularProgressDrawable.DEFAULT_BACKGROUND_STROKE_COLOR);
+        mSecondaryProgressStrokeColor =
+                attributes.getColor(R.styleable.CircularProgressBar_secondaryProgressStrokeColor,
+                        CircularProgressDrawable.DEFAULT_SECONDARY_PROGRESS_STROKE_COLOR);
+        mForegroundStrokeWidth =
+                attributes.getDimension(R.styleable.CircularProgressBar_foregroundStrokeWidth,
+                        Math.round(CircularProgressDrawable.DEFAULT_FOREGROUND_STROKE_WIDTH_DP *
+                                displayMetrics.density));
+        CircularProgressDrawable.checkStrokeWidth(mForegroundStrokeWidth);
+        mForegroundStrokeCap = CircularProgressBar.getStrokeCap(
+                attributes.getInt(R.styleable.CircularProgressBar_foregroundStrokeCap,
+                        CircularProgressBar.DEFAULT_FOREGROUND_STROKE_CAP));
+        mBackgroundStrokeWidth =
+                attributes.getDimension(R.styleable.CircularProgressBar_backgroundStrokeWidth,
+                        Math.round(CircularProgressDrawable.DEFAULT_BACKGROUND_STROKE_WIDTH_DP *
+                                displayMetrics.density));
+        CircularProgressDrawable.checkStrokeWidth(mBackgroundStrokeWidth);
+        mProgressThreshold =
+                attributes.getDimension(R.styleable.CircularProgressBar_progressThreshold,
+                        CircularProgressDrawable.DEFAULT_PROGRESS_THRESHOLD);
+        CircularProgressDrawable.checkProgressThreshold(mProgressThreshold);
+        mAnimateProgress = attributes.getBoolean(R.styleable.CircularProgressBar_animateProgress,
+                CircularProgressDrawable.DEFAULT_ANIMATE_PROGRESS);
+        mProgressSpringAnimation =
+                attributes.getBoolean(R.styleable.CircularProgressBar_progressSpringAnimation,
+                        CircularProgressDrawable.DEFAULT_PROGRESS_SPRING_ANIMATION);
+        mDrawBackgroundStroke =
+                attributes.getBoolean(R.styleable.CircularProgressBar_drawBackgroundStroke,
+                        CircularProgressDrawable.DEFAULT_DRAW_BACKGROUND_STROKE);
+        mCacheBackgroundStroke =
+                attributes.getBoolean(R.styleable.CircularProgressBar_cacheBackgroundStroke,
+                        CircularProgressDrawable.DEFAULT_CACHE_BACKGROUND_STROKE);
+        mPrecomputeInterpolators =
+                attributes.getBoolean(R.styleable.CircularProgressBar_precomputeInterpolators,
+                        CircularProgressDrawable.DEFAULT_PRECOMPUTE_INTERPOLATORS);
+        mIndeterminateSharedClock =
+                attributes.getBoolean(R.styleable.CircularProgressBar_indeterminateSharedClock,
+                        CircularProgressDrawable.DEFAULT_INDETERMINATE_SHARED_CLOCK);
+        mIndeterminateRenderThread =
+                attributes.getBoolean(R.styleable.CircularProgressBar_indeterminateRenderThread,
+                        CircularProgressDrawable.DEFAULT_INDETERMINATE_RENDER_THREAD);
+        mIndeterminateTargetFrameRate =
+                attributes.getFloat(R.styleable.CircularProgressBar_indeterminateTargetFrameRate,
+                        CircularProgressDrawable.DEFAULT_INDETERMINATE_TARGET_FRAME_RATE);
+        CircularProgressDrawable.checkTargetFrameRate(mIndeterminateTargetFrameRate);
+        mIndeterminatePowerSaving =
+                attributes.getBoolean(R.styleable.CircularProgressBar_indeterminatePowerSaving,
+                        CircularProgressDrawable.DEFAULT_INDETERMINATE_POWER_SAVING);
+        mPauseWhenClipped = attributes.getBoolean(R.styleable.CircularProgressBar_pauseWhenClipped,
+                CircularProgressBar.DEFAULT_PAUSE_WHEN_CLIPPED);
+        mLayerPolicy = CircularProgressBar.getLayerPolicy(
+                attributes.getInt(R.styleable.CircularProgressBar_layerPolicy,
+                        CircularProgressBar.DEFAULT_LAYER_POLICY));
+        mIndeterminate = attributes.getBoolean(R.styleable.CircularProgressBar_indeterminate,
+                CircularProgressDrawable.DEFAULT_INDETERMINATE);
+    }
+
+    /**
+     * Resolve style attribute values, cached values are returned if specified attribute set
+     * doesn't contain progress bar attributes or a style
+     */
+    @NonNull
+    static StyleConfig obtain(@NonNull final Context context,
+            @NonNull final AttributeSet attributeSet, @AttrRes final int defStyleAttr,
+            @StyleRes final int defStyleRes) {
+        final Resources.Theme theme = context.getTheme();
+        final Resources resources = context.getResources();
+        final Configuration configuration = resources.getConfiguration();
+        final boolean cacheable = !hasOwnAttributes(attributeSet);
+        if (cacheable) {
+            synchronized (sCache) {
+                final ArrayList<StyleConfig> configs = getCachedConfigs(theme, false);
+                if (configs != null) {
+                    for (int i = 0, size = configs.size(); i < size; i++) {
+                        final StyleConfig config = configs.get(i);
+                        if (config.matches(configuration, defStyleAttr, defStyleRes)) {
+                            return config;
+                        }
+                    }
+                }
+            }
+        }
+        final StyleConfig config;
+        TypedArray attributes = null;
+        try {
+            attributes = theme.obtainStyledAttributes(attributeSet, R.styleable.CircularProgressBar,
+                    defStyleAttr, defStyleRes);
+            config = new StyleConfig(attributes, new Configuration(configuration),
+                    resources.getDisplayMetrics(), defStyleAttr, defStyleRes);
+        } finally {
+            if (attributes != null) {
+                attributes.recycle();
+            }
+        }
+        if (cacheable) {
+            synchronized (sCache) {
+                final ArrayList<StyleConfig> configs = getCachedConfigs(theme, true);
+                //noinspection ConstantConditions
+                if (configs.size() >= MAXIMUM_CACHED_CONFIGS_PER_THEME) {
+                    configs.remove(0);
+                }
+                configs.add(config);
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Whether specified attribute set has a style or progress bar attributes,
+     * attributes without resource identifiers can't be checked and are treated as own
+     */
+    private static boolean hasOwnAttributes(@NonNull final AttributeSet attributeSet) {
+        if (attributeSet.getStyleAttribute() != 0) {
+            return true;
+        }
+        final int[] styleable = R.styleable.CircularProgressBar;
+        for (int i = 0, count = attributeSet.getAttributeCount(); i < count; i++) {
+            final int nameResource = attributeSet.getAttributeNameResource(i);
+            if (nameResource == 0) {
+                return true;
+            }
+            for (final int attribute : styleable) {
+                if (attribute == nameResource) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cached configs of the specified theme, should be called while holding cache lock;
+     * themes, that were garbage collected, are removed from the cache
+     */
+    @Nullable
+    private static ArrayList<StyleConfig> getCachedConfigs(@NonNull final Resources.Theme theme,
+            final boolean create) {
+        final ArrayList<ThemeConfigs> cache = sCache;
+        // Theme equality and hash code change when a style is applied to it
+        final int themeHash = theme.hashCode();
+        ArrayList<StyleConfig> configs = null;
+        for (int i = cache.size() - 1; i >= 0; i--) {
+            final ThemeConfigs themeConfigs = cache.get(i);
+            final Resources.Theme cachedTheme = themeConfigs.mTheme.get();
+            if (cachedTheme == null) {
+                cache.remove(i);
+            } else if (cachedTheme == theme) {
+                if (themeConfigs.mThemeHash != themeHash) {
+                    themeConfigs.mThemeHash = themeHash;
+                    themeConfigs.mConfigs.clear();
+                }
+                configs = themeConfigs.mConfigs;
+            }
+        }
+        if (configs == null && create) {
+            final ThemeConfigs themeConfigs = new ThemeConfigs(theme, themeHash);
+            cache.add(themeConfigs);
+            configs = themeConfigs.mConfigs;
+        }
+        return configs;
+    }
+
+    private boolean matches(@NonNull final Configuration configuration,
+            @AttrRes final int defStyleAttr, @StyleRes final int defStyleRes) {
+        return mDefStyleAttr == defStyleAttr && mDefStyleRes == defStyleRes &&
+                mConfiguration.equals(configuration);
+    }
+
+    @NonNull
+    Paint.Cap getForegroundStrokeCap() {
+        return mForegroundStrokeCap;
+    }
+
+    @NonNull
+    LayerPolicy getLayerPolicy() {
+        return mLayerPolicy;
+    }
+
+    int getForegroundStrokeColor() {
+        return mForegroundStrokeColor;
+    }
+
+    int getBackgroundStrokeColor() {
+        return mBackgroundStrokeColor;
+    }
+
+    int getSecondaryProgressStrokeColor() {
+        return mSecondaryProgressStrokeColor;
+    }
+
+    float getMaximum() {
+        return mMaximum;
+    }
+
+    float getProgress() {
+        return mProgress;
+    }
+
+    float getSecondaryProgress() {
+        return mSecondaryProgress;
+    }
+
+    float getStartAngle() {
+        return mStartAngle;
+    }
+
+    float getIndeterminateMinimumAngle() {
+        return mIndeterminateMinimumAngle;
+    }
+
+    float getIndeterminateTargetFrameRate() {
+        return mIndeterminateTargetFrameRate;
+    }
+
+    float getProgressThreshold() {
+        return mProgressThreshold;
+    }
+
+    float getForegroundStrokeWidth() {
+        return mForegroundStrokeWidth;
+    }
+
+    float getBackgroundStrokeWidth() {
+        return mBackgroundStrokeWidth;
+    }
+
+    long getProgressAnimationDuration() {
+        return mProgressAnimationDuration;
+    }
+
+    long getIndeterminateRotationAnimationDuration() {
+        return mIndeterminateRotationAnimationDuration;
+    }
+
+    long getIndeterminateSweepAnimationDuration() {
+        return mIndeterminateSweepAnimationDuration;
+    }
+
+    boolean isIndeterminate() {
+        return mIndeterminate;
+    }
+
+    boolean isAnimateProgress() {
+        return mAnimateProgress;
+    }
+
+    boolean isProgressSpringAnimation() {
+        return mProgressSpringAnimation;
+    }
+
+    boolean isDrawBackgroundStroke() {
+        return mDrawBackgroundStroke;
+    }
+
+    boolean isCacheBackgroundStroke() {
+        return mCacheBackgroundStroke;
+    }
+
+    boolean isPrecomputeInterpolators() {
+        return mPrecomputeInterpolators;
+    }
+
+    boolean isIndeterminateSharedClock() {
+        return mIndeterminateSharedClock;
+    }
+
+    boolean isIndeterminateRenderThread() {
+        return mIndeterminateRenderThread;
+    }
+
+    boolean isIndeterminatePowerSaving() {
+        return mIndeterminatePowerSaving;
+    }
+
+    boolean isPauseWhenClipped() {
+        return mPauseWhenClipped;
+    }
+
+    private static final class ThemeConfigs {
+        private final WeakReference<Resources.Theme> mTheme;
+        private final ArrayList<StyleConfig> mConfigs = new ArrayList<>(1);
+        private int mThemeHash;
+
+        private ThemeConfigs(@NonNull final Resources.Theme theme, final int themeHash) {
+            mTheme = new WeakReference<>(theme);
+            mThemeHash = themeHash;
+        }
+    }
+}
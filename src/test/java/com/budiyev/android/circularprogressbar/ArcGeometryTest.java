@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ArcGeometryTest {
+    private static final float DELTA = 1e-4f;
+    private static final int SIZE = 100;
+    private static final float STROKE_WIDTH = 10f;
+    private static final long ROTATION_DURATION = 1200L;
+    private static final long SWEEP_DURATION = 600L;
+    private static final float MINIMUM_ANGLE = 20f;
+    private ArcGeometry mGeometry;
+
+    @Before
+    public void setUp() {
+        mGeometry = new ArcGeometry();
+        mGeometry.setBounds(0f, 0f, SIZE, SIZE, STROKE_WIDTH);
+    }
+
+    @Test
+    public void boundsAreInsetByHalfOfThickness() {
+        assertEquals(6f, mGeometry.getLeft(), DELTA);
+        assertEquals(6f, mGeometry.getTop(), DELTA);
+        assertEquals(94f, mGeometry.getRight(), DELTA);
+        assertEquals(94f, mGeometry.getBottom(), DELTA);
+    }
+
+    @Test
+    public void boundsAreCenteredSquare() {
+        mGeometry.setBounds(10f, 20f, 200, 100, STROKE_WIDTH);
+        assertEquals(66f, mGeometry.getLeft(), DELTA);
+        assertEquals(26f, mGeometry.getTop(), DELTA);
+        assertEquals(154f, mGeometry.getRight(), DELTA);
+        assertEquals(114f, mGeometry.getBottom(), DELTA);
+    }
+
+    @Test
+    public void determinateSweepIsProportionalToProgress() {
+        mGeometry.computeDeterminateArc(270f, 25f, 100f);
+        assertEquals(270f, mGeometry.getArcStartAngle(), DELTA);
+        assertEquals(90f, mGeometry.getArcSweepAngle(), DELTA);
+    }
+
+    @Test
+    public void determinateSweepIsFullCircleAtMaximum() {
+        mGeometry.computeDeterminateArc(0f, 100f, 100f);
+        assertEquals(360f, mGeometry.getArcSweepAngle(), DELTA);
+        mGeometry.computeDeterminateArc(0f, 150f, 100f);
+        assertEquals(360f, mGeometry.getArcSweepAngle(), DELTA);
+    }
+
+    @Test
+    public void determinateSweepFollowsMaximumSign() {
+        mGeometry.computeDeterminateArc(0f, 25f, -100f);
+        assertEquals(-90f, mGeometry.getArcSweepAngle(), DELTA);
+        mGeometry.computeDeterminateArc(0f, -25f, 100f);
+        assertEquals(-90f, mGeometry.getArcSweepAngle(), DELTA);
+    }
+
+    @Test
+    public void capAngleIsZeroWithoutCap() {
+        mGeometry.setCap(false, STROKE_WIDTH);
+        assertEquals(0f, mGeometry.getCapAngle(), 0f);
+        mGeometry.computeDeterminateArc(0f, 50f, 100f);
+        assertEquals(0f, mGeometry.getArcStartAngle(), DELTA);
+        assertEquals(180f, mGeometry.getArcSweepAngle(), DELTA);
+    }
+
+    @Test
+    public void capCompensationShrinksArcFromBothEnds() {
+        mGeometry.setCap(true, STROKE_WIDTH);
+        final float capAngle = 90f * STROKE_WIDTH / (float) Math.PI / 44f;
+        assertEquals(capAngle, mGeometry.getCapAngle(), DELTA);
+        mGeometry.computeDeterminateArc(0f, 50f, 100f);
+        assertEquals(capAngle, mGeometry.getArcStartAngle(), DELTA);
+        assertEquals(180f - capAngle * 2f, mGeometry.getArcSweepAngle(), DELTA);
+        mGeometry.computeDeterminateArc(0f, -50f, 100f);
+        assertEquals(-capAngle, mGeometry.getArcStartAngle(), DELTA);
+        assertEquals(-180f + capAngle * 2f, mGeometry.getArcSweepAngle(), DELTA);
+    }
+
+    @Test
+    public void capCompensationIsNotAppliedToFullCircle() {
+        mGeometry.setCap(true, STROKE_WIDTH);
+        mGeometry.computeDeterminateArc(0f, 100f, 100f);
+        assertEquals(0f, mGeometry.getArcStartAngle(), DELTA);
+        assertEquals(360f, mGeometry.getArcSweepAngle(), DELTA);
+    }
+
+    @Test
+    public void capCompensatedSweepIsClampedToMinimum() {
+        mGeometry.setCap(true, STROKE_WIDTH);
+        mGeometry.computeDeterminateArc(0f, 1f, 100f);
+        assertEquals(ArcGeometry.MINIMUM_SWEEP_ANGLE, mGeometry.getArcSweepAngle(), 0f);
+        mGeometry.computeDeterminateArc(0f, -1f, 100f);
+        assertEquals(-ArcGeometry.MINIMUM_SWEEP_ANGLE, mGeometry.getArcSweepAngle(), 0f);
+    }
+
+    @Test
+    public void zeroSweepIsNotCompensated() {
+        mGeometry.setCap(true, STROKE_WIDTH);
+        mGeometry.computeDeterminateArc(30f, 0f, 100f);
+        assertEquals(30f, mGeometry.getArcStartAngle(), DELTA);
+        assertEquals(0f, mGeometry.getArcSweepAngle(), 0f);
+    }
+
+    @Test
+    public void segmentStartsWhereOffsetEnds() {
+        assertTrue(mGeometry.computeSegmentArc(0f, 25f, 50f, 100f));
+        assertEquals(90f, mGeometry.getArcStartAngle(), DELTA);
+        assertEquals(180f, mGeometry.getArcSweepAngle(), DELTA);
+        assertTrue(mGeometry.computeSegmentArc(0f, 75f, 50f, 100f));
+        assertEquals(90f, mGeometry.getArcSweepAngle(), DELTA);
+        assertFalse(mGeometry.computeSegmentArc(0f, 100f, 10f, 100f));
+        assertFalse(mGeometry.computeSegmentArc(0f, 0f, 0f, 100f));
+    }
+
+    @Test
+    public void indeterminateFrameFractions() {
+        computeIndeterminateFrame(300L, false, 0f);
+        assertEquals(0.25f, mGeometry.getRotationFraction(), DELTA);
+        assertEquals(0.5f, mGeometry.getSweepFraction(), DELTA);
+        computeIndeterminateFrame(-100L, false, 0f);
+        assertEquals(0f, mGeometry.getRotationFraction(), DELTA);
+        assertEquals(0f, mGeometry.getSweepFraction(), DELTA);
+        mGeometry.computeIndeterminateFrame(300L, 0L, 0L, MINIMUM_ANGLE, false, 0f);
+        assertEquals(1f, mGeometry.getRotationFraction(), 0f);
+        assertEquals(1f, mGeometry.getSweepFraction(), 0f);
+    }
+
+    @Test
+    public void indeterminateGrowModeTogglesEachSweep() {
+        computeIndeterminateFrame(SWEEP_DURATION - 1L, false, 0f);
+        assertFalse(mGeometry.isGrowMode());
+        computeIndeterminateFrame(SWEEP_DURATION, false, 0f);
+        assertTrue(mGeometry.isGrowMode());
+        computeIndeterminateFrame(SWEEP_DURATION * 2L, false, 0f);
+        assertFalse(mGeometry.isGrowMode());
+        computeIndeterminateFrame(SWEEP_DURATION * 3L, false, 0f);
+        assertTrue(mGeometry.isGrowMode());
+    }
+
+    @Test
+    public void indeterminateOffsetAdvancesWhenGrowModeIsEntered() {
+        computeIndeterminateFrame(0L, false, 0f);
+        assertEquals(0f, mGeometry.getOffsetAngle(), DELTA);
+        computeIndeterminateFrame(SWEEP_DURATION, false, 0f);
+        assertEquals(MINIMUM_ANGLE * 2f, mGeometry.getOffsetAngle(), DELTA);
+        computeIndeterminateFrame(SWEEP_DURATION * 2L, false, 0f);
+        assertEquals(MINIMUM_ANGLE * 2f, mGeometry.getOffsetAngle(), DELTA);
+        computeIndeterminateFrame(SWEEP_DURATION * 3L, false, 0f);
+        assertEquals(MINIMUM_ANGLE * 4f, mGeometry.getOffsetAngle(), DELTA);
+    }
+
+    @Test
+    public void indeterminateFrameStartsFromBaseState() {
+        computeIndeterminateFrame(0L, true, 30f);
+        assertTrue(mGeometry.isGrowMode());
+        assertEquals(30f, mGeometry.getOffsetAngle(), DELTA);
+        computeIndeterminateFrame(SWEEP_DURATION, true, 30f);
+        assertFalse(mGeometry.isGrowMode());
+        assertEquals(30f, mGeometry.getOffsetAngle(), DELTA);
+        computeIndeterminateFrame(SWEEP_DURATION * 2L, true, 30f);
+        assertTrue(mGeometry.isGrowMode());
+        assertEquals(30f + MINIMUM_ANGLE * 2f, mGeometry.getOffsetAngle(), DELTA);
+    }
+
+    @Test
+    public void indeterminateOffsetWrapsAround() {
+        computeIndeterminateFrame(SWEEP_DURATION, false, 350f);
+        assertEquals(30f, mGeometry.getOffsetAngle(), DELTA);
+    }
+
+    @Test
+    public void indeterminateArcDependsOnGrowMode() {
+        mGeometry.computeIndeterminateArc(90f, 100f, 40f, MINIMUM_ANGLE, true);
+        assertEquals(50f, mGeometry.getArcStartAngle(), DELTA);
+        assertEquals(120f, mGeometry.getArcSweepAngle(), DELTA);
+        mGeometry.computeIndeterminateArc(90f, 100f, 40f, MINIMUM_ANGLE, false);
+        assertEquals(150f, mGeometry.getArcStartAngle(), DELTA);
+        assertEquals(240f, mGeometry.getArcSweepAngle(), DELTA);
+    }
+
+    private void computeIndeterminateFrame(final long elapsed, final boolean baseGrowMode,
+            final float baseOffsetAngle) {
+        mGeometry.computeIndeterminateFrame(elapsed, ROTATION_DURATION, SWEEP_DURATION,
+                MINIMUM_ANGLE, baseGrowMode, baseOffsetAngle);
+    }
+}
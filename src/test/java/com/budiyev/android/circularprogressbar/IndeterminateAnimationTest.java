@@ -0,0 +1,202 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import android.app.Activity;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class IndeterminateAnimationTest {
+    private static final float DELTA = 1e-3f;
+    private static final int SIZE = 100;
+    private static final long FRAME_DURATION = 16L;
+    private ManualAnimationClock mClock;
+    private ArcRecordingCanvas mCanvas;
+
+    @Before
+    public void setUp() {
+        mClock = new ManualAnimationClock();
+        mCanvas = new ArcRecordingCanvas();
+    }
+
+    @Test
+    public void clockStepsGrowAndShrinkPhases() {
+        final CircularProgressDrawable drawable = createDrawable();
+        drawable.setAnimationClock(mClock);
+        drawable.setIndeterminate(true);
+        assertTrue(mClock.hasCallbacks());
+        // Default 1200 ms rotation, 600 ms sweep and 60 degrees minimum angle;
+        // arc shrinks from 300 to 60 degrees, then grows back with the offset advanced
+        assertArc(drawable, 0L, 0f, 300f);
+        assertArc(drawable, 600L, 60f, 60f);
+        assertArc(drawable, 1200L, -120f, 300f);
+        assertArc(drawable, 1800L, -60f, 60f);
+    }
+
+    @Test
+    public void clockFramesShrinkThenGrowArc() {
+        final CircularProgressDrawable drawable = createDrawable();
+        drawable.setAnimationClock(mClock);
+        drawable.setIndeterminate(true);
+        float sweep = drawArc(drawable, 0L);
+        for (long time = 100L; time < 600L; time += 100L) {
+            final float next = drawArc(drawable, time);
+            assertTrue("Arc should shrink at " + time, next < sweep);
+            sweep = next;
+        }
+        sweep = drawArc(drawable, 600L);
+        for (long time = 700L; time < 1200L; time += 100L) {
+            final float next = drawArc(drawable, time);
+            assertTrue("Arc should grow at " + time, next > sweep);
+            sweep = next;
+        }
+    }
+
+    @Test
+    public void sweepRestartActionTogglesGrowMode() {
+        final CircularProgressDrawable drawable = createDrawable();
+        drawable.setCallback(new HandlerCallback());
+        drawable.setIndeterminate(true);
+        idleFor(100L);
+        float sweep = drawArc(drawable);
+        for (int i = 0; i < 4; i++) {
+            idleFor(100L);
+            final float next = drawArc(drawable);
+            assertTrue("Arc should shrink before restart", next < sweep);
+            sweep = next;
+        }
+        // Sweep animator ends at 600 ms and restart action switches it to grow mode
+        idleFor(250L);
+        sweep = drawArc(drawable);
+        for (int i = 0; i < 3; i++) {
+            idleFor(100L);
+            final float next = drawArc(drawable);
+            assertTrue("Arc should grow after restart", next > sweep);
+            sweep = next;
+        }
+        drawable.stop();
+    }
+
+    @Test
+    public void barsSharingClockStayInPhase() {
+        final Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        final FrameLayout container = new FrameLayout(activity);
+        final CircularProgressBar first = new CircularProgressBar(activity);
+        final CircularProgressBar second = new CircularProgressBar(activity);
+        container.addView(first, new FrameLayout.LayoutParams(SIZE, SIZE));
+        container.addView(second, new FrameLayout.LayoutParams(SIZE, SIZE));
+        activity.setContentView(container);
+        shadowOf(Looper.getMainLooper()).idle();
+        first.layout(0, 0, SIZE, SIZE);
+        second.layout(0, 0, SIZE, SIZE);
+        first.setAnimationClock(mClock);
+        second.setAnimationClock(mClock);
+        first.setIndeterminate(true);
+        mClock.advanceFrames(20, FRAME_DURATION);
+        // Second bar is started later, but spins in the phase of the clock
+        second.setIndeterminate(true);
+        final ArcRecordingCanvas secondCanvas = new ArcRecordingCanvas();
+        for (int i = 0; i < 60; i++) {
+            mClock.advance(FRAME_DURATION);
+            first.draw(mCanvas);
+            second.draw(secondCanvas);
+            assertEquals(mCanvas.getArcStartAngle(), secondCanvas.getArcStartAngle(), DELTA);
+            assertEquals(mCanvas.getArcSweepAngle(), secondCanvas.getArcSweepAngle(), DELTA);
+        }
+    }
+
+    @NonNull
+    private static CircularProgressDrawable createDrawable() {
+        final CircularProgressDrawable drawable =
+                new CircularProgressDrawable(RuntimeEnvironment.getApplication());
+        drawable.setBounds(0, 0, SIZE, SIZE);
+        drawable.setVisible(true, false);
+        drawable.start();
+        return drawable;
+    }
+
+    private void assertArc(@NonNull final CircularProgressDrawable drawable, final long time,
+            final float startAngle, final float sweepAngle) {
+        drawArc(drawable, time);
+        assertEquals("Start angle at " + time, startAngle, mCanvas.getArcStartAngle(), DELTA);
+        assertEquals("Sweep angle at " + time, sweepAngle, mCanvas.getArcSweepAngle(), DELTA);
+    }
+
+    private float drawArc(@NonNull final CircularProgressDrawable drawable, final long time) {
+        mClock.setTime(time);
+        return drawArc(drawable);
+    }
+
+    private float drawArc(@NonNull final CircularProgressDrawable drawable) {
+        drawable.draw(mCanvas);
+        return mCanvas.getArcSweepAngle();
+    }
+
+    private static void idleFor(final long millis) {
+        shadowOf(Looper.getMainLooper()).idleFor(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drawable callback, that schedules drawable actions on the main looper as a view does
+     */
+    private static final class HandlerCallback implements Drawable.Callback {
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void invalidateDrawable(@NonNull final Drawable who) {
+            // Frames are drawn by the test
+        }
+
+        @Override
+        public void scheduleDrawable(@NonNull final Drawable who, @NonNull final Runnable what,
+                final long when) {
+            mHandler.postAtTime(what, who, when);
+        }
+
+        @Override
+        public void unscheduleDrawable(@NonNull final Drawable who, @NonNull final Runnable what) {
+            mHandler.removeCallbacks(what, who);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ProgressChannelsTest {
+    private static final int CHUNK_SIZE = 1 << 20;
+    private static final int SIZE = CHUNK_SIZE * 5 / 2;
+    private RecordingProgressSink mSink;
+    private byte[] mData;
+    private File mFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mSink = new RecordingProgressSink();
+        mData = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            mData[i] = (byte) (i * 31);
+        }
+        mFile = File.createTempFile("progress", null);
+    }
+
+    @After
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        mFile.delete();
+    }
+
+    @Test
+    public void fileTransferIsChunked() throws IOException {
+        writeFile(mData);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final RandomAccessFile file = new RandomAccessFile(mFile, "r");
+        try {
+            final FileChannel source = file.getChannel();
+            source.position(100L);
+            final long expected = SIZE - 100L;
+            assertEquals(expected,
+                    ProgressChannels.transfer(source, Channels.newChannel(out), mSink));
+            assertEquals(100L, source.position());
+            assertArrayEquals(Arrays.copyOfRange(mData, 100, SIZE), out.toByteArray());
+            assertChunked(expected);
+            assertEquals(expected, mSink.getLastTotal());
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void emptyFileTransferDoesNotPublish() throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(mFile, "r");
+        try {
+            assertEquals(0L, ProgressChannels.transfer(file.getChannel(),
+                    Channels.newChannel(new ByteArrayOutputStream()), mSink));
+            assertEquals(0, mSink.getCount());
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void channelTransferWithUnknownTotalIsChunked() throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            final FileChannel target = file.getChannel();
+            assertEquals(SIZE, ProgressChannels.transfer(createSource(), target, -1L, mSink));
+            assertEquals(0L, target.position());
+            assertArrayEquals(mData, readFile());
+            assertChunked(SIZE);
+            final long[] totals = mSink.getTotals();
+            for (final long total : totals) {
+                assertEquals(-1L, total);
+            }
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void channelTransferStopsAtTotal() throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            final long total = CHUNK_SIZE * 3 / 2;
+            final ReadableByteChannel source = createSource();
+            assertEquals(total, ProgressChannels.transfer(source, file.getChannel(), total, mSink));
+            assertArrayEquals(Arrays.copyOf(mData, (int) total), readFile());
+            assertChunked(total);
+            assertEquals(total, mSink.getLastTotal());
+            // Remaining source data isn't consumed
+            final ByteBuffer buffer = ByteBuffer.allocate(1);
+            assertEquals(1, source.read(buffer));
+            assertEquals(mData[(int) total], buffer.get(0));
+        } finally {
+            file.close();
+        }
+    }
+
+    private void assertChunked(final long total) {
+        final int count = (int) ((total + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        final long[] expected = new long[count];
+        for (int i = 0; i < count; i++) {
+            expected[i] = Math.min((long) (i + 1) * CHUNK_SIZE, total);
+        }
+        assertArrayEquals(expected, mSink.getTransferred());
+    }
+
+    private ReadableByteChannel createSource() {
+        return Channels.newChannel(new ByteArrayInputStream(mData));
+    }
+
+    private void writeFile(final byte[] data) throws IOException {
+        final FileOutputStream out = new FileOutputStream(mFile);
+        try {
+            out.write(data);
+        } finally {
+            out.close();
+        }
+    }
+
+    private byte[] readFile() throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(mFile, "r");
+        try {
+            final byte[] data = new byte[(int) file.length()];
+            file.readFully(data);
+            return data;
+        } finally {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ProgressStreamsTest {
+    private static final int SIZE = 20000;
+    private RecordingProgressSink mSink;
+    private byte[] mData;
+
+    @Before
+    public void setUp() {
+        mSink = new RecordingProgressSink();
+        mData = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            mData[i] = (byte) i;
+        }
+    }
+
+    @Test
+    public void singleByteReadsAreCounted() throws IOException {
+        final ProgressInputStream in = createInputStream(2);
+        assertEquals(mData[0], (byte) in.read());
+        assertEquals(mData[1], (byte) in.read());
+        assertEquals(-1, in.read());
+        assertArrayEquals(new long[] {1L, 2L}, mSink.getTransferred());
+        assertEquals(2L, in.getTransferred());
+    }
+
+    @Test
+    public void arrayReadsAreCounted() throws IOException {
+        final ProgressInputStream in = createInputStream(SIZE);
+        final byte[] buffer = new byte[12000];
+        assertEquals(12000, in.read(buffer, 0, buffer.length));
+        assertEquals(8000, in.read(buffer, 0, buffer.length));
+        assertEquals(-1, in.read(buffer, 0, buffer.length));
+        assertArrayEquals(new long[] {12000L, 20000L}, mSink.getTransferred());
+        assertArrayEquals(new long[] {SIZE, SIZE}, mSink.getTotals());
+    }
+
+    @Test
+    public void skippedBytesAreCounted() throws IOException {
+        final ProgressInputStream in = createInputStream(SIZE);
+        assertEquals(100L, in.skip(100L));
+        assertEquals(mData[100], (byte) in.read());
+        assertEquals(SIZE - 101L, in.skip(SIZE));
+        assertEquals(0L, in.skip(1L));
+        assertArrayEquals(new long[] {100L, 101L, SIZE}, mSink.getTransferred());
+    }
+
+    @Test
+    public void resetRestoresMarkedCount() throws IOException {
+        final ProgressInputStream in = createInputStream(SIZE);
+        final byte[] buffer = new byte[10];
+        assertEquals(3, in.read(buffer, 0, 3));
+        in.mark(100);
+        assertEquals(4, in.read(buffer, 0, 4));
+        assertEquals(7L, in.getTransferred());
+        in.reset();
+        assertEquals(3L, in.getTransferred());
+        assertEquals(3L, mSink.getLastTransferred());
+        assertEquals(mData[3], (byte) in.read());
+        assertArrayEquals(new long[] {3L, 7L, 3L, 4L}, mSink.getTransferred());
+    }
+
+    @Test
+    public void transferToCountsEachBuffer() throws IOException {
+        final ProgressInputStream in = createInputStream(-1L);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(SIZE, in.transferTo(out));
+        assertArrayEquals(mData, out.toByteArray());
+        assertArrayEquals(new long[] {8192L, 16384L, SIZE}, mSink.getTransferred());
+        assertArrayEquals(new long[] {-1L, -1L, -1L}, mSink.getTotals());
+    }
+
+    @Test
+    public void writesAreCounted() throws IOException {
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        final ProgressOutputStream out = new ProgressOutputStream(target, 101L, mSink);
+        out.write(mData[0]);
+        out.write(mData, 1, 100);
+        out.write(mData, 101, 0);
+        assertEquals(101, target.size());
+        assertEquals(101L, out.getTransferred());
+        assertArrayEquals(new long[] {1L, 101L}, mSink.getTransferred());
+        assertArrayEquals(new long[] {101L, 101L}, mSink.getTotals());
+    }
+
+    @Test
+    public void channelReadsAreCounted() throws IOException {
+        final ProgressReadableByteChannel channel = new ProgressReadableByteChannel(
+                Channels.newChannel(new ByteArrayInputStream(mData)), SIZE, mSink);
+        final ByteBuffer buffer = ByteBuffer.allocate(12000);
+        assertEquals(12000, channel.read(buffer));
+        buffer.clear();
+        assertEquals(8000, channel.read(buffer));
+        buffer.clear();
+        assertEquals(-1, channel.read(buffer));
+        assertEquals(SIZE, channel.getTransferred());
+        assertArrayEquals(new long[] {12000L, 20000L}, mSink.getTransferred());
+    }
+
+    @Test
+    public void channelWritesAreCounted() throws IOException {
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        final ProgressWritableByteChannel channel =
+                new ProgressWritableByteChannel(Channels.newChannel(target), -1L, mSink);
+        assertEquals(SIZE, channel.write(ByteBuffer.wrap(mData)));
+        assertEquals(0, channel.write(ByteBuffer.allocate(0)));
+        assertArrayEquals(mData, target.toByteArray());
+        assertArrayEquals(new long[] {SIZE}, mSink.getTransferred());
+        assertArrayEquals(new long[] {-1L}, mSink.getTotals());
+    }
+
+    private ProgressInputStream createInputStream(final long total) {
+        final int size = total > 0L ? (int) total : SIZE;
+        return new ProgressInputStream(new ByteArrayInputStream(mData, 0, size), total, mSink);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017 Yuriy Budiyev [yuriy.budiyev@yandex.ru]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.budiyev.android.circularprogressbar;
+
+import java.util.ArrayList;
+
+/**
+ * Progress sink, that records all published values
+ */
+final class RecordingProgressSink implements ProgressSink {
+    private final ArrayList<Long> mTransferred = new ArrayList<>();
+    private final ArrayList<Long> mTotals = new ArrayList<>();
+
+    @Override
+    public void onProgress(final long transferred, final long total) {
+        mTransferred.add(transferred);
+        mTotals.add(total);
+    }
+
+    int getCount() {
+        return mTransferred.size();
+    }
+
+    long[] getTransferred() {
+        return toArray(mTransferred);
+    }
+
+    long[] getTotals() {
+        return toArray(mTotals);
+    }
+
+    long getLastTransferred() {
+        return mTransferred.get(mTransferred.size() - 1);
+    }
+
+    long getLastTotal() {
+        return mTotals.get(mTotals.size() - 1);
+    }
+
+    private static long[] toArray(final ArrayList<Long> list) {
+        final long[] array = new long[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}